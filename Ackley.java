@@ -0,0 +1,82 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * The Ackley function. Its minimum of 0 is at the origin, in a narrow hole in an almost flat, bumpy outer region.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class Ackley implements ObjectiveFunction {
+
+    /**
+     * Evaluates the Ackley function.
+     *
+     * @param x is the array holding the position vector.
+     * @param offset is the index in x at which the position vector starts.
+     * @param dimensions is the number of dimensions of the position vector.
+     * @return the value of the function at the position.
+     */
+    public double evaluate(double[] x, int offset, int dimensions) {
+        double firstSum = 0.0;
+        double secondSum = 0.0;
+
+        for (int i = offset; i < offset + dimensions; i++) {
+            double xi = x[i];
+            firstSum += xi * xi;
+            secondSum += Math.cos(2.0*Math.PI*xi);
+        }
+        return -20.0 * Math.exp(-0.2 * Math.sqrt(firstSum/dimensions)) -
+               Math.exp(secondSum/dimensions) + 20.0 + Math.E;
+    }
+
+    public double getLowerBound() {
+        return -32.0;
+    }
+
+    public double getUpperBound() {
+        return 32.0;
+    }
+
+    public double getInitMin() {
+        return 16.0;
+    }
+
+    public double getInitMax() {
+        return 32.0;
+    }
+
+    public double getVelocityMin() {
+        return -2.0;
+    }
+
+    public double getVelocityMax() {
+        return 4.0;
+    }
+
+    /**
+     * Initialises a particle the way the original particle did, so results can be compared with experiments run before the functions were pluggable.
+     * Those expressions round to whole numbers and do not stay inside the init range: positions are whole numbers from 1 to 32 and velocities from 1 to 4.
+     * Drawing only from [16, 32) would start the whole swarm on the flat outer plateau of Ackley, where it stops making progress.
+     *
+     * @param position is the array holding the position vector.
+     * @param pbestPosition is the array holding the personal best position vector.
+     * @param velocity is the array holding the velocity vector.
+     * @param offset is the index at which the particle's vectors start.
+     * @param dimensions is the number of dimensions.
+     * @param rand is the random stream of the particle.
+     */
+    public void initialise(double[] position, double[] pbestPosition, double[] velocity, int offset, int dimensions, RandomGenerator rand) {
+        double min = getInitMin();
+        double max = getInitMax();
+        double velMin = getVelocityMin();
+        double velMax = getVelocityMax();
+        for (int i = offset; i < offset + dimensions; i++) {
+            position[i] = Math.floor(rand.nextDouble() * max - min + 1) + min;
+            pbestPosition[i] = Math.floor(rand.nextDouble() * max - min + 1) + min;
+            velocity[i] = Math.floor(rand.nextDouble() * velMax - velMin + 1) + velMin;
+        }
+    }
+
+    public double getOptimum() {
+        return 0.0;
+    }
+}
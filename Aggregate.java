@@ -0,0 +1,295 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Aggregate class that summarises the results files written by Experiment, so topologies can be compared without going through the runs by hand.
+ * Every file is read one line at a time into a CellStats per function, topology and swarm size, which keeps its memory bounded however many runs
+ * there are. The files are read in parallel and their cells merged. For every function and swarm size, each pair of topologies is then compared
+ * with a RankSumTest of their final best solutions, and the p-values are adjusted with Holm's method for the number of pairs.
+ *
+ * Usage: java Aggregate {output file} {results file}... [success=0.01] [workers=cores]
+ * Example: java Aggregate summary.psoa results.csv
+ * A run is a success if its final best solution is at most the success threshold. The summary is printed, and the cells and tests are written
+ * to the output file as the tables "cells" and "tests" of a ColumnarFile.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class Aggregate {
+
+    //the columns of a results line before the best solutions, and after them
+    private static final int LEADING = 6;
+    private static final int TRAILING = 2;
+
+    //the number of columns of a complete results line
+    private static final int COLUMNS = Experiment.HEADER.split(",").length;
+
+    /**
+     * Reads the results files, prints the summary and writes the output file.
+     *
+     * @param args are the output file and the results files, followed by optional key=value settings.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        if (args.length < 2) {
+            System.out.println("Usage: java Aggregate {output file} {results file}... [success=0.01] [workers=cores]");
+            return;
+        }
+
+        List<String> files = new ArrayList<String>();
+        double success = 0.01;
+        int workers = Runtime.getRuntime().availableProcessors();
+        for (int i = 1; i < args.length; i++) {
+            String[] setting = args[i].split("=", 2);
+            if (setting.length != 2) {
+                files.add(args[i]);
+            } else if (setting[0].equals("success")) {
+                success = Double.parseDouble(setting[1]);
+            } else if (setting[0].equals("workers")) {
+                workers = Integer.parseInt(setting[1]);
+            } else {
+                throw new IllegalArgumentException("Unknown setting " + setting[0]);
+            }
+        }
+
+        //each file is read into its own cells, which are merged as the files finish
+        Map<String, CellStats> cells = new HashMap<String, CellStats>();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(workers, files.size())));
+        try {
+            List<Future<Map<String, CellStats>>> reads = new ArrayList<Future<Map<String, CellStats>>>();
+            double threshold = success;
+            for (String file : files) {
+                reads.add(pool.submit(() -> read(file, threshold)));
+            }
+            for (Future<Map<String, CellStats>> read : reads) {
+                for (Map.Entry<String, CellStats> cell : read.get().entrySet()) {
+                    CellStats known = cells.putIfAbsent(cell.getKey(), cell.getValue());
+                    if (known != null) {
+                        known.merge(cell.getValue());
+                    }
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<CellStats> sorted = new ArrayList<CellStats>(cells.values());
+        sorted.sort(Comparator.comparing(CellStats::getFunction).thenComparingInt(CellStats::getSize).thenComparing(CellStats::getTopology));
+        List<RankSumTest> tests = new ArrayList<RankSumTest>();
+        List<CellStats[]> pairs = new ArrayList<CellStats[]>();
+        compare(sorted, tests, pairs);
+        double[] adjusted = holm(tests, pairs);
+
+        print(sorted, tests, pairs, adjusted);
+        List<ColumnarFile.Table> tables = new ArrayList<ColumnarFile.Table>();
+        tables.add(cellTable(sorted));
+        tables.add(testTable(tests, pairs, adjusted));
+        ColumnarFile.write(Paths.get(args[0]), tables);
+    }
+
+    /**
+     * Reads the runs of one results file. The header, and any line cut off by a stopped experiment, are skipped:
+     * a line must have every column of Experiment and end with a known stop reason and a number of evaluations.
+     *
+     * @param file is the results file.
+     * @param success is the largest final best solution of a successful run.
+     * @return the cells of the file by function, topology and size.
+     */
+    static Map<String, CellStats> read(String file, double success) throws IOException {
+        Map<String, CellStats> cells = new HashMap<String, CellStats>();
+        try (BufferedReader in = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] columns = line.split(",");
+                if (line.startsWith("function,") || columns.length != COLUMNS) {
+                    continue;
+                }
+                double[] bests = new double[columns.length - LEADING - TRAILING];
+                try {
+                    for (int i = 0; i < bests.length; i++) {
+                        bests[i] = Double.parseDouble(columns[LEADING + i]);
+                    }
+                    int size = Integer.parseInt(columns[2]);
+                    long millis = Long.parseLong(columns[5]);
+                    long evaluations = Long.parseLong(columns[columns.length - 1]);
+                    StopReason.valueOf(columns[columns.length - 2]);
+
+                    String key = columns[0] + "," + columns[1] + "," + size;
+                    CellStats cell = cells.computeIfAbsent(key, k -> new CellStats(columns[0], columns[1], size));
+                    cell.add(bests, millis, evaluations, bests[bests.length - 1] <= success);
+                } catch (IllegalArgumentException e) {
+                    //a line cut off in the middle of a number or stop reason, which NumberFormatException is also one of
+                }
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Compares every pair of topologies of the same function and swarm size.
+     *
+     * @param cells are the cells, sorted by function, size and topology.
+     * @param tests receives the tests.
+     * @param pairs receives the two cells of each test.
+     */
+    private static void compare(List<CellStats> cells, List<RankSumTest> tests, List<CellStats[]> pairs) {
+        for (int a = 0; a < cells.size(); a++) {
+            for (int b = a + 1; b < cells.size(); b++) {
+                CellStats first = cells.get(a);
+                CellStats second = cells.get(b);
+                if (first.getFunction().equals(second.getFunction()) && first.getSize() == second.getSize()) {
+                    tests.add(new RankSumTest(first.getSketch(), second.getSketch()));
+                    pairs.add(new CellStats[] {first, second});
+                }
+            }
+        }
+    }
+
+    /**
+     * Adjusts the p-values with Holm's method, separately for every function and swarm size, so the chance of a false difference
+     * among all the pairs of one function and size stays below the level the p-values are compared with.
+     *
+     * @param tests are the tests.
+     * @param pairs are the cells of each test.
+     * @return the adjusted p-value of each test.
+     */
+    private static double[] holm(List<RankSumTest> tests, List<CellStats[]> pairs) {
+        double[] adjusted = new double[tests.size()];
+        Map<String, List<Integer>> families = new HashMap<String, List<Integer>>();
+        for (int t = 0; t < tests.size(); t++) {
+            families.computeIfAbsent(pairs.get(t)[0].getFunction() + "," + pairs.get(t)[0].getSize(), k -> new ArrayList<Integer>()).add(t);
+        }
+        for (List<Integer> family : families.values()) {
+            family.sort(Comparator.comparingDouble(t -> tests.get(t).getP()));
+            double running = 0;
+            for (int rank = 0; rank < family.size(); rank++) {
+                int t = family.get(rank);
+                running = Math.max(running, Math.min(1, (family.size() - rank) * tests.get(t).getP()));
+                adjusted[t] = running;
+            }
+        }
+        return adjusted;
+    }
+
+    /**
+     * Prints a table of the cells and the pairs of topologies that differ at the 5% level.
+     *
+     * @param cells are the cells.
+     * @param tests are the tests.
+     * @param pairs are the cells of each test.
+     * @param adjusted are the adjusted p-values.
+     */
+    private static void print(List<CellStats> cells, List<RankSumTest> tests, List<CellStats[]> pairs, double[] adjusted) {
+        System.out.println(String.format("%-8s %-8s %5s %6s %12s %12s %12s %12s %12s %8s",
+                "function", "topology", "size", "runs", "mean", "q25", "median", "q75", "sd", "success"));
+        for (CellStats cell : cells) {
+            QuantileSketch sketch = cell.getSketch();
+            System.out.println(String.format("%-8s %-8s %5d %6d %12.4g %12.4g %12.4g %12.4g %12.4g %7.1f%%",
+                    cell.getFunction(), cell.getTopology(), cell.getSize(), cell.getRuns(), cell.getMean(), sketch.quantile(0.25),
+                    sketch.quantile(0.5), sketch.quantile(0.75), cell.getStandardDeviation(), 100 * cell.getSuccessRate()));
+        }
+        System.out.println();
+        for (int t = 0; t < tests.size(); t++) {
+            if (adjusted[t] < 0.05) {
+                CellStats[] pair = pairs.get(t);
+                CellStats better = tests.get(t).getZ() > 0 ? pair[0] : pair[1];
+                CellStats worse = better == pair[0] ? pair[1] : pair[0];
+                System.out.println(String.format("%s %d: %s beats %s (p = %.3g, adjusted %.3g, P(%s < %s) = %.2f)", pair[0].getFunction(), pair[0].getSize(),
+                        better.getTopology(), worse.getTopology(), tests.get(t).getP(), adjusted[t], pair[0].getTopology(), pair[1].getTopology(),
+                        tests.get(t).getEffect()));
+            }
+        }
+    }
+
+    /**
+     * Builds the table of the cells, with the convergence curve as one column per 1000 iterations.
+     *
+     * @param cells are the cells.
+     * @return the table.
+     */
+    private static ColumnarFile.Table cellTable(List<CellStats> cells) {
+        int rows = cells.size();
+        String[] function = new String[rows];
+        String[] topology = new String[rows];
+        long[] size = new long[rows];
+        long[] runs = new long[rows];
+        double[][] stats = new double[10][rows];
+        int checkpoints = 0;
+        for (CellStats cell : cells) {
+            checkpoints = Math.max(checkpoints, cell.getMeanBests().length);
+        }
+        double[][] curve = new double[checkpoints][rows];
+
+        for (int r = 0; r < rows; r++) {
+            CellStats cell = cells.get(r);
+            QuantileSketch sketch = cell.getSketch();
+            function[r] = cell.getFunction();
+            topology[r] = cell.getTopology();
+            size[r] = cell.getSize();
+            runs[r] = cell.getRuns();
+            double[] row = {cell.getMean(), cell.getStandardDeviation(), sketch.getMin(), sketch.quantile(0.25), sketch.quantile(0.5),
+                    sketch.quantile(0.75), sketch.getMax(), cell.getSuccessRate(), cell.getMeanEvaluations(), cell.getMeanMillis()};
+            for (int s = 0; s < row.length; s++) {
+                stats[s][r] = row[s];
+            }
+            double[] means = cell.getMeanBests();
+            for (int c = 0; c < checkpoints; c++) {
+                curve[c][r] = c < means.length ? means[c] : Double.NaN;
+            }
+        }
+
+        ColumnarFile.Table table = new ColumnarFile.Table("cells", rows).add("function", function).add("topology", topology).add("size", size).add("runs", runs);
+        String[] names = {"mean", "sd", "min", "q25", "median", "q75", "max", "successRate", "evaluations", "millis"};
+        for (int s = 0; s < names.length; s++) {
+            table.add(names[s], stats[s]);
+        }
+        for (int c = 0; c < checkpoints; c++) {
+            table.add("mean" + (c + 1) * 1000, curve[c]);
+        }
+        return table;
+    }
+
+    /**
+     * Builds the table of the tests.
+     *
+     * @param tests are the tests.
+     * @param pairs are the cells of each test.
+     * @param adjusted are the adjusted p-values.
+     * @return the table.
+     */
+    private static ColumnarFile.Table testTable(List<RankSumTest> tests, List<CellStats[]> pairs, double[] adjusted) {
+        int rows = tests.size();
+        String[] function = new String[rows];
+        long[] size = new long[rows];
+        String[] first = new String[rows];
+        String[] second = new String[rows];
+        double[] u = new double[rows];
+        double[] effect = new double[rows];
+        double[] z = new double[rows];
+        double[] p = new double[rows];
+        for (int t = 0; t < rows; t++) {
+            CellStats[] pair = pairs.get(t);
+            RankSumTest test = tests.get(t);
+            function[t] = pair[0].getFunction();
+            size[t] = pair[0].getSize();
+            first[t] = pair[0].getTopology();
+            second[t] = pair[1].getTopology();
+            u[t] = test.getU();
+            effect[t] = test.getEffect();
+            z[t] = test.getZ();
+            p[t] = test.getP();
+        }
+        return new ColumnarFile.Table("tests", rows).add("function", function).add("size", size).add("first", first).add("second", second)
+                .add("u", u).add("effect", effect).add("z", z).add("p", p).add("adjustedP", Arrays.copyOf(adjusted, rows));
+    }
+}
@@ -0,0 +1,33 @@
+/**
+ * The bare-bones update of Kennedy, which has no velocity equation and no coefficients at all. Each coordinate of the new position is drawn
+ * from a Gaussian centred between the personal best and the neighborhood best, with their distance as its standard deviation:
+ * x = N((pbest + nbest) / 2, |pbest - nbest|).
+ * The step taken is stored as the velocity, so the velocity limit, the boundary policies and the diversity measures work as with the other updates.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class BareBonesUpdate implements UpdateStrategy {
+
+    public void move(SwarmState state, int particle, Topology topology, int neighborhood, int nbest, RandomStream rand) {
+        int dimensions = state.dimensions;
+        double[] position = state.position;
+        double[] velocity = state.velocity;
+        double[] pbestPosition = state.pbestPosition;
+        double[] vmax = state.vmax;
+        int offset = state.offset(particle);
+        int nbestOffset = state.offset(nbest);
+
+        for (int i = 0; i < dimensions; i++) {
+            int k = offset + i;
+            double p = pbestPosition[k];
+            double g = pbestPosition[nbestOffset + i];
+            double next = (p + g) * 0.5 + Math.abs(p - g) * rand.nextGaussian();
+
+            double step = next - position[k];
+            double limit = vmax[i];
+            step = step > limit ? limit : step < -limit ? -limit : step;
+            velocity[k] = step;
+            position[k] = step + position[k];
+        }
+    }
+}
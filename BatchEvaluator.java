@@ -0,0 +1,21 @@
+/**
+ * BatchEvaluator interface for evaluating many particles in one call.
+ * The positions of the whole swarm are passed as one matrix with a row of length dimensions per particle (the layout of SwarmState),
+ * so expensive or external functions can amortise their setup over the batch, use the matrix directly, or evaluate the rows in parallel.
+ * Functions that only evaluate one position at a time are adapted by FunctionEvaluator.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public interface BatchEvaluator {
+
+    /**
+     * Evaluates the particles from (inclusive) to to (exclusive).
+     *
+     * @param positions is the position matrix of the swarm, particle p's position starts at index p * dimensions.
+     * @param dimensions is the number of dimensions of each position.
+     * @param from is the first particle to evaluate.
+     * @param to is one past the last particle to evaluate.
+     * @param values receives the value of particle p at index p.
+     */
+    void evaluate(double[] positions, int dimensions, int from, int to, double[] values);
+}
@@ -0,0 +1,103 @@
+/**
+ * The ways a particle that left the search space can be brought back, applied after every move. The bounds of each dimension are in SwarmState.lower
+ * and SwarmState.upper, which the swarm takes from the function. Each policy is its own loop over the dimensions of the particle, so the choice is made once per move.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public enum BoundaryPolicy {
+    //the particles are not bounded, as in the original experiments
+    NONE {
+        void apply(SwarmState state, int particle, RandomStream rand) {
+        }
+    },
+
+    //a coordinate outside the bounds is moved onto the nearest bound, and the velocity is kept
+    CLAMP {
+        void apply(SwarmState state, int particle, RandomStream rand) {
+            double[] position = state.position;
+            int offset = state.offset(particle);
+            for (int i = 0; i < state.dimensions; i++) {
+                position[offset + i] = Math.max(state.lower[i], Math.min(state.upper[i], position[offset + i]));
+            }
+        }
+    },
+
+    //a coordinate outside the bounds is mirrored back into the search space at the bound it crossed, and its velocity is reversed
+    REFLECT {
+        void apply(SwarmState state, int particle, RandomStream rand) {
+            double[] position = state.position;
+            double[] velocity = state.velocity;
+            int offset = state.offset(particle);
+            for (int i = 0; i < state.dimensions; i++) {
+                int k = offset + i;
+                double x = position[k];
+                double lower = state.lower[i];
+                double upper = state.upper[i];
+                if (x < lower || x > upper) {
+                    double reflected = x < lower ? 2 * lower - x : 2 * upper - x;
+
+                    //a step longer than the search space would still be outside after the reflection
+                    position[k] = Math.max(lower, Math.min(upper, reflected));
+                    velocity[k] = -velocity[k];
+                }
+            }
+        }
+    },
+
+    //a coordinate outside the bounds is moved onto the nearest bound and its velocity is set to 0, so the particle stops at the wall
+    ABSORB {
+        void apply(SwarmState state, int particle, RandomStream rand) {
+            double[] position = state.position;
+            double[] velocity = state.velocity;
+            int offset = state.offset(particle);
+            for (int i = 0; i < state.dimensions; i++) {
+                int k = offset + i;
+                double x = position[k];
+                double clamped = Math.max(state.lower[i], Math.min(state.upper[i], x));
+                position[k] = clamped;
+                velocity[k] = clamped == x ? velocity[k] : 0;
+            }
+        }
+    },
+
+    //a coordinate outside the bounds is given a new random value within the bounds, and its velocity is set to 0
+    RANDOM {
+        void apply(SwarmState state, int particle, RandomStream rand) {
+            double[] position = state.position;
+            double[] velocity = state.velocity;
+            int offset = state.offset(particle);
+            for (int i = 0; i < state.dimensions; i++) {
+                int k = offset + i;
+                double lower = state.lower[i];
+                double upper = state.upper[i];
+                if (position[k] < lower || position[k] > upper) {
+                    position[k] = lower + rand.nextDouble() * (upper - lower);
+                    velocity[k] = 0;
+                }
+            }
+        }
+    };
+
+    /**
+     * Brings a particle that moved outside the bounds back into the search space.
+     *
+     * @param state holds the vectors of every particle in the swarm.
+     * @param particle is the index of the particle that moved.
+     * @param rand is the random stream of the calling thread.
+     */
+    abstract void apply(SwarmState state, int particle, RandomStream rand);
+
+    /**
+     * Finds the policy for a name given by the user: none, clamp, reflect, absorb or random.
+     *
+     * @param name is the name of the policy.
+     * @return the policy.
+     */
+    public static BoundaryPolicy forName(String name) {
+        try {
+            return valueOf(name.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown boundary policy " + name, e);
+        }
+    }
+}
@@ -0,0 +1,347 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Evaluator that remembers the values of positions it has evaluated, for expensive functions. Late in a run the particles keep coming back to
+ * almost the same positions around the neighborhood bests, and with a slow black-box function every one of those visits costs a full evaluation.
+ * Each position is quantized to a grid with cells of the given tolerance in every dimension (or taken bit for bit with a tolerance of 0),
+ * and the 64 bit hash of the grid cell is the key. Two positions in the same cell share their value, so with a tolerance above 0 the swarm sees
+ * the value of a nearby position instead of its own.
+ * The values are kept in an open-addressing table of primitive arrays with a fixed number of entries. When the table is full the CLOCK algorithm
+ * evicts an entry that has not been used since the hand last passed it, which approximates evicting the least recently used entry without ordering them.
+ * The positions that are not in the table are gathered into one batch for the wrapped evaluator, so a remote or parallel evaluator still gets whole batches.
+ * A cache belongs to one swarm and must only be used by one thread at a time, which is how the swarm calls its evaluator.
+ * Its entries, clock hand and counters are saved in the checkpoints of the swarm, so a resumed run sees the same cached values as an uninterrupted one.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class CachingEvaluator implements BatchEvaluator {
+
+    //the key of an empty slot. A position whose hash is 0 gets the key 1 instead.
+    private static final long EMPTY = 0;
+
+    //evaluates the positions that are not in the table
+    private final BatchEvaluator delegate;
+
+    //one over the size of a grid cell, or 0 if positions are compared bit for bit
+    private final double scale;
+
+    //the table: the key and value of each slot, and whether the slot was used since the clock hand last passed it
+    private final long[] keys;
+    private final double[] values;
+    private final boolean[] referenced;
+    private final int mask;
+
+    //the most entries kept, the number of entries, and the slot the clock hand points at
+    private final int maxEntries;
+    private int size;
+    private int hand;
+
+    //the positions that were not in the table in the current batch: their particles, keys, coordinates and values
+    private int[] missParticles = new int[0];
+    private long[] missKeys = new long[0];
+    private double[] missPositions = new double[0];
+    private double[] missValues = new double[0];
+
+    //the number of positions found in the table, the number evaluated by the wrapped evaluator, and the number of entries evicted
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Constructor for a cache.
+     *
+     * @param delegate evaluates the positions that are not in the cache.
+     * @param maxEntries is the most values kept. The table has at least twice as many slots, so the probes stay short.
+     * @param tolerance is the size of a grid cell in every dimension, or 0 to only reuse the values of exactly equal positions.
+     * @throws IllegalArgumentException if maxEntries is not positive or the tolerance is negative.
+     */
+    public CachingEvaluator(BatchEvaluator delegate, int maxEntries, double tolerance) {
+        if (maxEntries < 1 || maxEntries > 1 << 28) {
+            throw new IllegalArgumentException("The number of cache entries must be between 1 and 2^28 but is " + maxEntries);
+        }
+        if (!(tolerance >= 0)) {
+            throw new IllegalArgumentException("The tolerance must not be negative but is " + tolerance);
+        }
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.scale = tolerance == 0 ? 0 : 1 / tolerance;
+        int capacity = Integer.highestOneBit(maxEntries) << 2;
+        keys = new long[capacity];
+        values = new double[capacity];
+        referenced = new boolean[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Evaluates the particles from (inclusive) to to (exclusive), taking the values of known positions from the table
+     * and evaluating the others in one batch with the wrapped evaluator.
+     *
+     * @param positions is the position matrix of the swarm.
+     * @param dimensions is the number of dimensions of each position.
+     * @param from is the first particle to evaluate.
+     * @param to is one past the last particle to evaluate.
+     * @param values receives the value of particle p at index p.
+     */
+    public void evaluate(double[] positions, int dimensions, int from, int to, double[] values) {
+        ensureCapacity(to - from, dimensions);
+        int count = 0;
+        for (int p = from; p < to; p++) {
+            long key = key(positions, p * dimensions, dimensions);
+            int slot = find(key);
+            if (slot >= 0) {
+                values[p] = this.values[slot];
+                referenced[slot] = true;
+                hits++;
+            } else {
+                missParticles[count] = p;
+                missKeys[count] = key;
+                System.arraycopy(positions, p * dimensions, missPositions, count * dimensions, dimensions);
+                count++;
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+
+        delegate.evaluate(missPositions, dimensions, 0, count, missValues);
+        misses += count;
+        for (int m = 0; m < count; m++) {
+            values[missParticles[m]] = missValues[m];
+            put(missKeys[m], missValues[m]);
+        }
+    }
+
+    /**
+     * Computes the key of a position: the hash of the grid cell it is in, or of its exact coordinates with a tolerance of 0.
+     *
+     * @param positions is the array holding the position.
+     * @param offset is the index at which the position starts.
+     * @param dimensions is the number of dimensions of the position.
+     * @return the key, which is never EMPTY.
+     */
+    private long key(double[] positions, int offset, int dimensions) {
+        long hash = dimensions;
+        for (int i = offset; i < offset + dimensions; i++) {
+            //+ 0.0 turns -0.0 into 0.0, so both zeros have the same key
+            long coordinate = scale == 0 ? Double.doubleToLongBits(positions[i] + 0.0) : (long) Math.floor(positions[i] * scale);
+            hash = RandomStream.mix64(hash * 0x9e3779b97f4a7c15L + coordinate);
+        }
+        return hash == EMPTY ? 1 : hash;
+    }
+
+    /**
+     * Finds the slot of a key by linear probing from its home slot.
+     *
+     * @param key is the key.
+     * @return the slot holding the key, or -1 if it is not in the table.
+     */
+    private int find(long key) {
+        for (int slot = home(key); keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Adds a value to the table, evicting an entry first if the table is full. A key that is already in the table keeps its first value.
+     *
+     * @param key is the key of the position.
+     * @param value is the value of the function at the position.
+     */
+    private void put(long key, double value) {
+        if (find(key) >= 0) {
+            return;
+        }
+        if (size == maxEntries) {
+            evict();
+        }
+        int slot = home(key);
+        while (keys[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        referenced[slot] = false;
+        size++;
+    }
+
+    /**
+     * Moves the clock hand over the table, giving every used entry a second chance, until it finds an entry that was not used since the last pass, and removes it.
+     */
+    private void evict() {
+        while (true) {
+            int slot = hand;
+            hand = (hand + 1) & mask;
+            if (keys[slot] == EMPTY) {
+                continue;
+            }
+            if (referenced[slot]) {
+                referenced[slot] = false;
+            } else {
+                remove(slot);
+                evictions++;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes the entry in a slot. The entries after it in the same probe run are shifted back into the hole, so lookups never need tombstones.
+     *
+     * @param hole is the slot of the entry.
+     */
+    private void remove(int hole) {
+        keys[hole] = EMPTY;
+        size--;
+        for (int slot = (hole + 1) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            //an entry can fill the hole if its home slot is not between the hole and its own slot
+            if (((slot - home(keys[slot])) & mask) >= ((slot - hole) & mask)) {
+                keys[hole] = keys[slot];
+                values[hole] = values[slot];
+                referenced[hole] = referenced[slot];
+                keys[slot] = EMPTY;
+                hole = slot;
+            }
+        }
+    }
+
+    /**
+     * Returns the slot where probing for a key starts.
+     *
+     * @param key is the key.
+     * @return the home slot of the key.
+     */
+    private int home(long key) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+
+    /**
+     * Makes the scratch arrays for the positions that are not in the table large enough for a batch.
+     *
+     * @param particles is the number of particles in the batch.
+     * @param dimensions is the number of dimensions of each position.
+     */
+    private void ensureCapacity(int particles, int dimensions) {
+        if (missParticles.length < particles) {
+            missParticles = new int[particles];
+            missKeys = new long[particles];
+            missValues = new double[particles];
+        }
+        if (missPositions.length < particles * dimensions) {
+            missPositions = new double[particles * dimensions];
+        }
+    }
+
+    /**
+     * Forgets every value, for example when the swarm is reset, and sets the counters back to 0.
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        hand = 0;
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    /**
+     * Returns the number of bytes saveState will write.
+     *
+     * @return the size of the state saved in a checkpoint.
+     */
+    int stateBytes() {
+        return 3 * Integer.BYTES + 3 * Long.BYTES + size * (Integer.BYTES + Long.BYTES + Double.BYTES + 1);
+    }
+
+    /**
+     * Writes the entries, the clock hand and the counters to a checkpoint. Each entry is written with its slot,
+     * so the restored table probes and evicts in the same order.
+     *
+     * @param out is the buffer the state is written to.
+     */
+    void saveState(ByteBuffer out) {
+        out.putInt(keys.length).putInt(size).putInt(hand).putLong(hits).putLong(misses).putLong(evictions);
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) {
+                out.putInt(slot).putLong(keys[slot]).putDouble(values[slot]).put((byte) (referenced[slot] ? 1 : 0));
+            }
+        }
+    }
+
+    /**
+     * Reads the state written by saveState when a swarm is resumed from a checkpoint.
+     *
+     * @param in is the buffer the state is read from.
+     * @throws IllegalArgumentException if the checkpoint was taken with a cache of a different size.
+     */
+    void restoreState(ByteBuffer in) {
+        int capacity = in.getInt();
+        if (capacity != keys.length) {
+            throw new IllegalArgumentException("The checkpoint has a cache of " + capacity + " slots, but the swarm has " + keys.length);
+        }
+        clear();
+        size = in.getInt();
+        hand = in.getInt();
+        hits = in.getLong();
+        misses = in.getLong();
+        evictions = in.getLong();
+        for (int e = 0; e < size; e++) {
+            int slot = in.getInt();
+            keys[slot] = in.getLong();
+            values[slot] = in.getDouble();
+            referenced[slot] = in.get() != 0;
+        }
+    }
+
+    /**
+     * Getter method for the wrapped evaluator.
+     * @return the evaluator that evaluates the positions that are not in the cache.
+     */
+    public BatchEvaluator getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Getter method for the number of hits.
+     * @return the number of positions whose value was found in the cache.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Getter method for the number of misses.
+     * @return the number of positions that were evaluated by the wrapped evaluator.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Getter method for the number of evictions.
+     * @return the number of values removed to make room for new ones.
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Getter method for the hit rate.
+     * @return the fraction of positions whose value was found in the cache, or 0 before the first evaluation.
+     */
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Getter method for the number of entries.
+     * @return the number of values in the cache.
+     */
+    public int getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,207 @@
+import java.util.Arrays;
+
+/**
+ * CellStats class that summarises the runs of one cell of an experiment grid, that is one function, topology and swarm size, as the runs are read.
+ * It keeps the mean and variance of the final best solution (with Welford's algorithm), a QuantileSketch of it for the median and other quantiles,
+ * the number of successful runs, and the mean best solution at every 1000 iterations for the convergence curve.
+ * The memory used stops growing after the first 1024 runs, and two CellStats of the same cell can be merged, so files can be read in parallel.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class CellStats {
+
+    //the cell
+    private final String function;
+    private final String topology;
+    private final int size;
+
+    //the number of runs, and the mean and sum of squared differences from the mean of their final best solutions
+    private long runs;
+    private double mean;
+    private double m2;
+
+    //the distribution of the final best solutions
+    private final QuantileSketch sketch = new QuantileSketch();
+
+    //the number of runs whose final best solution reached the success threshold
+    private long successes;
+
+    //the sums of the function evaluations and of the running times of the runs
+    private long evaluations;
+    private long millis;
+
+    //the sum and number of the best solutions at every 1000 iterations, for runs of different lengths
+    private double[] bestSums = new double[0];
+    private long[] bestCounts = new long[0];
+
+    /**
+     * Constructor for the statistics of an empty cell.
+     *
+     * @param function is the function of the cell.
+     * @param topology is the topology of the cell.
+     * @param size is the swarm size of the cell.
+     */
+    public CellStats(String function, String topology, int size) {
+        this.function = function;
+        this.topology = topology;
+        this.size = size;
+    }
+
+    /**
+     * Adds a run to the cell.
+     *
+     * @param bests are the best solutions of the run at every 1000 iterations, the last one being the final best solution.
+     * @param millis is the running time of the run.
+     * @param evaluations is the number of function evaluations of the run.
+     * @param success is whether the run reached the success threshold.
+     */
+    public void add(double[] bests, long millis, long evaluations, boolean success) {
+        double best = bests[bests.length - 1];
+        runs++;
+        double delta = best - mean;
+        mean += delta / runs;
+        m2 += delta * (best - mean);
+        sketch.add(best);
+        if (success) {
+            successes++;
+        }
+        this.evaluations += evaluations;
+        this.millis += millis;
+
+        ensureLength(bests.length);
+        for (int i = 0; i < bests.length; i++) {
+            bestSums[i] += bests[i];
+            bestCounts[i]++;
+        }
+    }
+
+    /**
+     * Adds the runs of another CellStats of the same cell to this one.
+     *
+     * @param other holds the runs of the same cell, read for example from another results file.
+     */
+    public void merge(CellStats other) {
+        if (other.runs == 0) {
+            return;
+        }
+        long total = runs + other.runs;
+        double delta = other.mean - mean;
+        m2 += other.m2 + delta * delta * runs * other.runs / total;
+        mean += delta * other.runs / total;
+        runs = total;
+        sketch.merge(other.sketch);
+        successes += other.successes;
+        evaluations += other.evaluations;
+        millis += other.millis;
+
+        ensureLength(other.bestSums.length);
+        for (int i = 0; i < other.bestSums.length; i++) {
+            bestSums[i] += other.bestSums[i];
+            bestCounts[i] += other.bestCounts[i];
+        }
+    }
+
+    /**
+     * Makes the convergence sums long enough for runs with the given number of best solutions.
+     *
+     * @param length is the number of best solutions.
+     */
+    private void ensureLength(int length) {
+        if (bestSums.length < length) {
+            bestSums = Arrays.copyOf(bestSums, length);
+            bestCounts = Arrays.copyOf(bestCounts, length);
+        }
+    }
+
+    /**
+     * Getter method for the function.
+     * @return the function of the cell.
+     */
+    public String getFunction() {
+        return function;
+    }
+
+    /**
+     * Getter method for the topology.
+     * @return the topology of the cell.
+     */
+    public String getTopology() {
+        return topology;
+    }
+
+    /**
+     * Getter method for the swarm size.
+     * @return the swarm size of the cell.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Getter method for the number of runs.
+     * @return the number of runs in the cell.
+     */
+    public long getRuns() {
+        return runs;
+    }
+
+    /**
+     * Getter method for the mean.
+     * @return the mean final best solution, or NaN if the cell has no runs.
+     */
+    public double getMean() {
+        return runs == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * Getter method for the standard deviation.
+     * @return the sample standard deviation of the final best solutions, or NaN with fewer than 2 runs.
+     */
+    public double getStandardDeviation() {
+        return runs < 2 ? Double.NaN : Math.sqrt(m2 / (runs - 1));
+    }
+
+    /**
+     * Getter method for the distribution of the final best solutions, for quantiles and rank tests.
+     * @return the sketch of the final best solutions.
+     */
+    public QuantileSketch getSketch() {
+        return sketch;
+    }
+
+    /**
+     * Getter method for the success rate.
+     * @return the fraction of runs that reached the success threshold, or NaN if the cell has no runs.
+     */
+    public double getSuccessRate() {
+        return runs == 0 ? Double.NaN : (double) successes / runs;
+    }
+
+    /**
+     * Getter method for the mean number of evaluations.
+     * @return the mean number of function evaluations per run.
+     */
+    public double getMeanEvaluations() {
+        return runs == 0 ? Double.NaN : (double) evaluations / runs;
+    }
+
+    /**
+     * Getter method for the mean running time.
+     * @return the mean running time of a run in milliseconds.
+     */
+    public double getMeanMillis() {
+        return runs == 0 ? Double.NaN : (double) millis / runs;
+    }
+
+    /**
+     * Getter method for the convergence curve.
+     * @return the mean best solution at every 1000 iterations, over the runs that got that far.
+     */
+    public double[] getMeanBests() {
+        double[] means = new double[bestSums.length];
+        for (int i = 0; i < means.length; i++) {
+            means[i] = bestSums[i] / bestCounts[i];
+        }
+        return means;
+    }
+}
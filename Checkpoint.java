@@ -0,0 +1,248 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Checkpoint class that periodically writes the full state of a swarm to a file, so a run that is stopped can be resumed with Swarm.resume()
+ * and continues exactly as it would have without the interruption.
+ * The file is a versioned binary layout: the magic number PSOC, the format version, the state written by Swarm.writeCheckpoint() and a CRC32
+ * of everything before it, all big-endian. A checkpoint is first written to a temporary file next to the checkpoint file and then moved over it,
+ * so the file always holds a complete checkpoint even if the machine stops while writing.
+ * Writing is double-buffered: the thread running the swarm only copies the state into whichever of the two buffers the background thread is not
+ * writing and returns, so the iteration loop never waits for the disk. If a buffer is still waiting to be written when the next checkpoint is taken,
+ * it is overwritten with the newer state.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class Checkpoint implements AutoCloseable {
+
+    //the first bytes of every checkpoint file, "PSOC"
+    static final int MAGIC = 0x50534F43;
+
+    //the version of the layout, increased whenever the layout changes
+    static final int VERSION = 3;
+
+    //the checkpoint file, and the temporary file each checkpoint is written to first
+    private final Path file;
+    private final Path temporary;
+
+    //the two buffers, the index of the one being written by the background thread and the index of the one waiting to be written, or -1 for none
+    private final ByteBuffer[] buffers = new ByteBuffer[2];
+    private int writing = -1;
+    private int ready = -1;
+
+    //the number of checkpoints written to the file
+    private long written;
+
+    private final Thread writer;
+    private boolean closed;
+
+    /**
+     * Constructor for a checkpoint, which starts the background thread.
+     *
+     * @param file is the file the checkpoints are written to.
+     */
+    public Checkpoint(Path file) {
+        this.file = file.toAbsolutePath();
+        this.temporary = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+
+        writer = new Thread(this::write, "checkpoint");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Copies the state of the swarm into a free buffer and hands it to the background thread. Called by the swarm after an iteration.
+     *
+     * @param swarm is the swarm whose state is saved.
+     */
+    void save(Swarm swarm) {
+        int free;
+        synchronized (this) {
+            free = writing == 0 ? 1 : 0;
+            //a buffer that is still waiting is taken back, its state is older than the one about to be saved
+            if (ready == free) {
+                ready = -1;
+            }
+        }
+
+        int bytes = 12 + swarm.checkpointBytes();
+        if (buffers[free] == null || buffers[free].capacity() < bytes) {
+            buffers[free] = ByteBuffer.allocateDirect(bytes);
+        }
+        ByteBuffer buffer = buffers[free];
+        buffer.clear();
+        buffer.putInt(MAGIC).putInt(VERSION);
+        swarm.writeCheckpoint(buffer);
+
+        CRC32 crc = new CRC32();
+        buffer.flip();
+        crc.update(buffer);
+        buffer.limit(buffer.capacity());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        synchronized (this) {
+            ready = free;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Runs on the background thread: writes every buffer handed over by save() to the checkpoint file.
+     */
+    private void write() {
+        while (true) {
+            ByteBuffer buffer;
+            synchronized (this) {
+                while (ready < 0 && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (ready < 0) {
+                    return;
+                }
+                writing = ready;
+                ready = -1;
+                buffer = buffers[writing];
+            }
+
+            try {
+                try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(false);
+                }
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                synchronized (this) {
+                    written++;
+                }
+            } catch (IOException e) {
+                System.err.println("Checkpoint failed: " + e);
+            }
+
+            synchronized (this) {
+                writing = -1;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Reads a checkpoint file and checks its magic number, version and CRC.
+     *
+     * @param file is the checkpoint file.
+     * @return the state of the swarm, positioned after the version.
+     * @throws IOException if the file cannot be read or is not a complete checkpoint of this version.
+     */
+    static ByteBuffer load(Path file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < 12 || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Not a checkpoint: " + file);
+            }
+            buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Checkpoint " + file + " is truncated");
+                }
+            }
+        }
+        buffer.flip();
+
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a checkpoint: " + file);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Checkpoint " + file + " has version " + buffer.getInt(4) + ", expected " + VERSION);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.limit() - 4);
+        if (buffer.getInt(buffer.limit() - 4) != (int) crc.getValue()) {
+            throw new IOException("Checkpoint " + file + " is corrupt");
+        }
+        buffer.position(8);
+        buffer.limit(buffer.limit() - 4);
+        return buffer;
+    }
+
+    /**
+     * Writes the first length values of an array to a buffer in one bulk copy.
+     *
+     * @param out is the buffer.
+     * @param values is the array.
+     * @param length is the number of values written.
+     */
+    static void putDoubles(ByteBuffer out, double[] values, int length) {
+        out.asDoubleBuffer().put(values, 0, length);
+        out.position(out.position() + length * Double.BYTES);
+    }
+
+    /**
+     * Reads length values from a buffer into the start of an array in one bulk copy.
+     *
+     * @param in is the buffer.
+     * @param values is the array.
+     * @param length is the number of values read.
+     */
+    static void getDoubles(ByteBuffer in, double[] values, int length) {
+        in.asDoubleBuffer().get(values, 0, length);
+        in.position(in.position() + length * Double.BYTES);
+    }
+
+    /**
+     * Writes the first length values of an array to a buffer in one bulk copy.
+     *
+     * @param out is the buffer.
+     * @param values is the array.
+     * @param length is the number of values written.
+     */
+    static void putInts(ByteBuffer out, int[] values, int length) {
+        out.asIntBuffer().put(values, 0, length);
+        out.position(out.position() + length * Integer.BYTES);
+    }
+
+    /**
+     * Reads length values from a buffer into the start of an array in one bulk copy.
+     *
+     * @param in is the buffer.
+     * @param values is the array.
+     * @param length is the number of values read.
+     */
+    static void getInts(ByteBuffer in, int[] values, int length) {
+        in.asIntBuffer().get(values, 0, length);
+        in.position(in.position() + length * Integer.BYTES);
+    }
+
+    /**
+     * Getter method for the number of checkpoints written.
+     * @return the number of checkpoints written to the file so far.
+     */
+    public synchronized long getWritten() {
+        return written;
+    }
+
+    /**
+     * Waits until the last checkpoint handed over has been written, then stops the background thread.
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
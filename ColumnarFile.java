@@ -0,0 +1,243 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ColumnarFile class that writes and reads tables in a compact binary file, column by column, for results that are too large to handle as text.
+ * Each column is stored as one block of values of a single type, so a program that needs only some columns can skip over the others,
+ * and text columns with few distinct values (functions, topologies) are stored as a dictionary followed by one byte per row.
+ *
+ * The file is big-endian: the magic number and version, the number of tables, and for each table its name, number of rows and number of columns.
+ * Each column has its name and type, followed by its values: the rows as doubles or longs, or for text the dictionary size, the dictionary
+ * and one code per row, which is a byte if the dictionary has at most 256 entries and an int otherwise. Text is written as modified UTF-8.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class ColumnarFile {
+
+    //"PSOA", and the version of the layout
+    private static final int MAGIC = 0x50534F41;
+    private static final int VERSION = 1;
+
+    //the types of the columns
+    private static final byte TEXT = 0;
+    private static final byte DOUBLE = 1;
+    private static final byte LONG = 2;
+
+    private ColumnarFile() {
+    }
+
+    /**
+     * A table of named columns of equal length. A column is a String[], a double[] or a long[].
+     */
+    public static class Table {
+        private final String name;
+        private final int rows;
+        private final Map<String, Object> columns = new LinkedHashMap<String, Object>();
+
+        /**
+         * Constructor for a table without columns.
+         *
+         * @param name is the name of the table.
+         * @param rows is the number of rows of every column.
+         */
+        public Table(String name, int rows) {
+            this.name = name;
+            this.rows = rows;
+        }
+
+        /**
+         * Adds a column.
+         *
+         * @param column is the name of the column.
+         * @param values are the values of the rows, a String[], double[] or long[].
+         * @return this table.
+         * @throws IllegalArgumentException if the column has the wrong length or type.
+         */
+        public Table add(String column, Object values) {
+            int length;
+            if (values instanceof String[]) {
+                length = ((String[]) values).length;
+            } else if (values instanceof double[]) {
+                length = ((double[]) values).length;
+            } else if (values instanceof long[]) {
+                length = ((long[]) values).length;
+            } else {
+                throw new IllegalArgumentException("Column " + column + " must be a String[], double[] or long[]");
+            }
+            if (length != rows) {
+                throw new IllegalArgumentException("Column " + column + " has " + length + " rows instead of " + rows);
+            }
+            columns.put(column, values);
+            return this;
+        }
+
+        /**
+         * Getter method for the name.
+         * @return the name of the table.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Getter method for the number of rows.
+         * @return the number of rows.
+         */
+        public int getRows() {
+            return rows;
+        }
+
+        /**
+         * Getter method for the columns.
+         * @return the columns by name, in the order they were added.
+         */
+        public Map<String, Object> getColumns() {
+            return columns;
+        }
+    }
+
+    /**
+     * Writes tables to a file, replacing it if it exists.
+     *
+     * @param file is the file.
+     * @param tables are the tables.
+     */
+    public static void write(Path file, List<Table> tables) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(tables.size());
+            for (Table table : tables) {
+                out.writeUTF(table.name);
+                out.writeInt(table.rows);
+                out.writeInt(table.columns.size());
+                for (Map.Entry<String, Object> column : table.columns.entrySet()) {
+                    out.writeUTF(column.getKey());
+                    Object values = column.getValue();
+                    if (values instanceof String[]) {
+                        out.writeByte(TEXT);
+                        writeText(out, (String[]) values);
+                    } else if (values instanceof double[]) {
+                        out.writeByte(DOUBLE);
+                        for (double value : (double[]) values) {
+                            out.writeDouble(value);
+                        }
+                    } else {
+                        out.writeByte(LONG);
+                        for (long value : (long[]) values) {
+                            out.writeLong(value);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a text column as a dictionary and one code per row.
+     *
+     * @param out is the stream.
+     * @param values are the rows.
+     */
+    private static void writeText(DataOutputStream out, String[] values) throws IOException {
+        Map<String, Integer> codes = new HashMap<String, Integer>();
+        List<String> dictionary = new ArrayList<String>();
+        for (String value : values) {
+            if (!codes.containsKey(value)) {
+                codes.put(value, dictionary.size());
+                dictionary.add(value);
+            }
+        }
+        out.writeInt(dictionary.size());
+        for (String entry : dictionary) {
+            out.writeUTF(entry);
+        }
+        boolean bytes = dictionary.size() <= 256;
+        for (String value : values) {
+            int code = codes.get(value);
+            if (bytes) {
+                out.writeByte(code);
+            } else {
+                out.writeInt(code);
+            }
+        }
+    }
+
+    /**
+     * Reads every table of a file.
+     *
+     * @param file is the file.
+     * @return the tables, in the order they were written.
+     * @throws IOException if the file cannot be read or is not a columnar file of this version.
+     */
+    public static List<Table> read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is not a columnar results file");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException(file + " has version " + version + " but version " + VERSION + " is expected");
+            }
+            List<Table> tables = new ArrayList<Table>();
+            int count = in.readInt();
+            for (int t = 0; t < count; t++) {
+                Table table = new Table(in.readUTF(), in.readInt());
+                int columns = in.readInt();
+                for (int c = 0; c < columns; c++) {
+                    String name = in.readUTF();
+                    byte type = in.readByte();
+                    if (type == TEXT) {
+                        table.add(name, readText(in, table.rows));
+                    } else if (type == DOUBLE) {
+                        double[] values = new double[table.rows];
+                        for (int r = 0; r < values.length; r++) {
+                            values[r] = in.readDouble();
+                        }
+                        table.add(name, values);
+                    } else if (type == LONG) {
+                        long[] values = new long[table.rows];
+                        for (int r = 0; r < values.length; r++) {
+                            values[r] = in.readLong();
+                        }
+                        table.add(name, values);
+                    } else {
+                        throw new IOException("Column " + name + " of " + file + " has the unknown type " + type);
+                    }
+                }
+                tables.add(table);
+            }
+            return tables;
+        }
+    }
+
+    /**
+     * Reads a text column.
+     *
+     * @param in is the stream.
+     * @param rows is the number of rows.
+     * @return the rows.
+     */
+    private static String[] readText(DataInputStream in, int rows) throws IOException {
+        String[] dictionary = new String[in.readInt()];
+        for (int d = 0; d < dictionary.length; d++) {
+            dictionary[d] = in.readUTF();
+        }
+        boolean bytes = dictionary.length <= 256;
+        String[] values = new String[rows];
+        for (int r = 0; r < rows; r++) {
+            values[r] = dictionary[bytes ? in.readUnsignedByte() : in.readInt()];
+        }
+        return values;
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * The constricted update of Clerc and Kennedy, the update this project has always used:
+ * v = chi * (v + U(0, phi1) * (pbest - x) + U(0, phi2) * (nbest - x)), then x = x + v.
+ * In the original experiments the neighborhood best only attracts a particle if it is better than the particle's own personal best,
+ * otherwise the social term is 0. That rule is kept by default so results stay comparable, and can be turned off for the textbook update.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class ConstrictionUpdate implements UpdateStrategy {
+
+    //personal best acceleration coeffecient
+    private final double phi1;
+
+    // neighborhood best acceleration coefficient
+    private final double phi2;
+
+    // constriction factor
+    private final double constrictionFactor;
+
+    //whether the social term is 0 when the neighborhood best is not better than the particle's personal best
+    private final boolean socialOnlyWhenBetter;
+
+    /**
+     * Constructor for the update of the original experiments.
+     *
+     * @param phi1 is the personal best acceleration coefficient.
+     * @param phi2 is the neighborhood best acceleration coefficient.
+     * @param constrictionFactor is the constriction factor.
+     */
+    public ConstrictionUpdate(double phi1, double phi2, double constrictionFactor) {
+        this(phi1, phi2, constrictionFactor, true);
+    }
+
+    /**
+     * Constructor for the update.
+     *
+     * @param phi1 is the personal best acceleration coefficient.
+     * @param phi2 is the neighborhood best acceleration coefficient.
+     * @param constrictionFactor is the constriction factor.
+     * @param socialOnlyWhenBetter is whether the neighborhood best only attracts a particle if it is better than the particle's personal best.
+     */
+    public ConstrictionUpdate(double phi1, double phi2, double constrictionFactor, boolean socialOnlyWhenBetter) {
+        this.phi1 = phi1;
+        this.phi2 = phi2;
+        this.constrictionFactor = constrictionFactor;
+        this.socialOnlyWhenBetter = socialOnlyWhenBetter;
+    }
+
+    public void move(SwarmState state, int particle, Topology topology, int neighborhood, int nbest, RandomStream rand) {
+        int dimensions = state.dimensions;
+        double[] position = state.position;
+        double[] velocity = state.velocity;
+        double[] pbestPosition = state.pbestPosition;
+        double[] vmax = state.vmax;
+        int offset = state.offset(particle);
+        int nbestOffset = state.offset(nbest);
+
+        //the rule is decided once per particle, so the loop below has no branches
+        boolean social = !socialOnlyWhenBetter || state.pbest[nbest] < state.pbest[particle];
+        double socialPhi = social ? phi2 : 0;
+        double[] coefficients = rand.uniforms(2 * dimensions);
+
+        for (int i = 0; i < dimensions; i++) {
+            int k = offset + i;
+            double pBestAttract = (pbestPosition[k] - position[k]) * (coefficients[i] * phi1);
+            double nBestAttract = (pbestPosition[nbestOffset + i] - position[k]) * (coefficients[dimensions + i] * socialPhi);
+
+            //constrict the new velocity, limit it and update the position. The limit uses comparisons, since Math.min and Math.max also have to order -0.0 and NaN and were slower here
+            double newVelocity = (velocity[k] + (nBestAttract + pBestAttract)) * constrictionFactor;
+            double limit = vmax[i];
+            newVelocity = newVelocity > limit ? limit : newVelocity < -limit ? -limit : newVelocity;
+            velocity[k] = newVelocity;
+            position[k] = newVelocity + position[k];
+        }
+    }
+}
@@ -0,0 +1,35 @@
+import java.io.IOException;
+
+/**
+ * ConvergenceListener interface for everything that wants to follow a run while it is in progress, such as the CSV and JSON lines writers.
+ * Listeners are called by the Telemetry thread, never by the thread running the swarm, so a slow listener cannot hold up the optimizer.
+ * The values are passed as primitives so that recording a sample does not allocate.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public interface ConvergenceListener {
+
+    /**
+     * Called for every sampled iteration.
+     *
+     * @param iteration is the iteration the sample was taken after.
+     * @param globalBest is the best personal best in the swarm.
+     * @param nbestSpread is the difference between the worst and the best neighborhood best, which is 0 once every neighborhood agrees on the best solution.
+     * @param meanVelocity is the mean length of the velocity vectors.
+     * @param diversity is the mean distance of the particles to the centre of the swarm.
+     * @param iterationNanos is how long the iteration took in nanoseconds.
+     */
+    void onSample(long iteration, double globalBest, double nbestSpread, double meanVelocity, double diversity, long iterationNanos) throws IOException;
+
+    /**
+     * Called when there are no more samples waiting, so buffered output can be written out and a run can be watched while it is in progress.
+     */
+    default void flush() throws IOException {
+    }
+
+    /**
+     * Called once when the telemetry is closed, after the last sample.
+     */
+    default void close() throws IOException {
+    }
+}
@@ -0,0 +1,36 @@
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes convergence samples to a CSV file with one line per sampled iteration.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class CsvConvergenceWriter implements ConvergenceListener {
+
+    private final Writer out;
+
+    /**
+     * Constructor that creates the file and writes the header line.
+     *
+     * @param fileName is the name of the CSV file.
+     */
+    public CsvConvergenceWriter(String fileName) throws IOException {
+        out = new BufferedWriter(new FileWriter(fileName));
+        out.write("iteration,globalBest,nbestSpread,meanVelocity,diversity,iterationNanos\n");
+    }
+
+    public void onSample(long iteration, double globalBest, double nbestSpread, double meanVelocity, double diversity, long iterationNanos) throws IOException {
+        out.write(iteration + "," + globalBest + "," + nbestSpread + "," + meanVelocity + "," + diversity + "," + iterationNanos + "\n");
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    public void close() throws IOException {
+        out.close();
+    }
+}
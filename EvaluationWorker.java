@@ -0,0 +1,134 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+/**
+ * EvaluationWorker class, a process that evaluates positions for a RemoteEvaluator. It listens on a port and serves every coordinator
+ * that connects on its own thread, so several swarms can share the same workers. See RemoteEvaluator for the protocol.
+ *
+ * Usage: java EvaluationWorker {port}
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class EvaluationWorker {
+
+    /**
+     * Listens on the given port and serves coordinators until the process is stopped.
+     *
+     * @param args is the port.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: java EvaluationWorker {port}");
+            return;
+        }
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress(Integer.parseInt(args[0])));
+            System.out.println("Evaluation worker listening on port " + args[0]);
+            while (true) {
+                SocketChannel channel = server.accept();
+                Thread thread = new Thread(() -> serve(channel), "coordinator " + channel.socket().getRemoteSocketAddress());
+                thread.setDaemon(true);
+                thread.start();
+            }
+        }
+    }
+
+    /**
+     * Serves one coordinator: does the handshake, then answers requests until the coordinator disconnects.
+     *
+     * @param channel is the connection to the coordinator.
+     */
+    static void serve(SocketChannel channel) {
+        try (SocketChannel connection = channel) {
+            connection.socket().setTcpNoDelay(true);
+
+            //the handshake is read through an unbuffered stream, so nothing after it is taken from the channel
+            DataInputStream handshake = new DataInputStream(Channels.newInputStream(connection));
+            DataOutputStream reply = new DataOutputStream(Channels.newOutputStream(connection));
+            if (handshake.readInt() != RemoteEvaluator.MAGIC || handshake.readInt() != RemoteEvaluator.VERSION) {
+                return;
+            }
+            String name = handshake.readUTF();
+            ObjectiveFunction function;
+            try {
+                function = ObjectiveFunction.forName(name);
+            } catch (RuntimeException e) {
+                reply.writeInt(RemoteEvaluator.MAGIC);
+                reply.writeInt(1);
+                return;
+            }
+            reply.writeInt(RemoteEvaluator.MAGIC);
+            reply.writeInt(0);
+
+            //the buffers grow to the largest request and are reused
+            ByteBuffer header = ByteBuffer.allocate(3 * Integer.BYTES);
+            ByteBuffer request = ByteBuffer.allocate(0);
+            ByteBuffer response = ByteBuffer.allocate(0);
+            double[] positions = new double[0];
+            while (true) {
+                header.clear();
+                if (!readFully(connection, header)) {
+                    return;
+                }
+                int id = header.getInt(0);
+                int count = header.getInt(Integer.BYTES);
+                int dimensions = header.getInt(2 * Integer.BYTES);
+
+                int length = count * dimensions;
+                if (positions.length < length) {
+                    positions = new double[length];
+                    request = ByteBuffer.allocate(length * Double.BYTES);
+                }
+                if (response.capacity() < 2 * Integer.BYTES + count * Double.BYTES) {
+                    response = ByteBuffer.allocate(2 * Integer.BYTES + count * Double.BYTES);
+                }
+                request.clear().limit(length * Double.BYTES);
+                if (!readFully(connection, request)) {
+                    return;
+                }
+                request.flip();
+                request.asDoubleBuffer().get(positions, 0, length);
+
+                response.clear();
+                response.putInt(id).putInt(count);
+                for (int p = 0; p < count; p++) {
+                    response.putDouble(function.evaluate(positions, p * dimensions, dimensions));
+                }
+                response.flip();
+                while (response.hasRemaining()) {
+                    connection.write(response);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Coordinator failed: " + e);
+        }
+    }
+
+    /**
+     * Reads until the buffer is full.
+     *
+     * @param channel is the channel read from.
+     * @param buffer is the buffer filled.
+     * @return whether the buffer was filled, or false if the channel was closed before anything was read.
+     * @throws EOFException if the channel was closed in the middle of the buffer.
+     */
+    private static boolean readFully(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        int start = buffer.position();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                if (buffer.position() == start) {
+                    return false;
+                }
+                throw new EOFException();
+            }
+        }
+        return true;
+    }
+}
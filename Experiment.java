@@ -0,0 +1,243 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Experiment class that runs a whole grid of swarms (every combination of function, topology, swarm size and repetition) inside one JVM.
+ * The runs are independent, so they are spread over a fixed pool of worker threads, and the result of each run is appended to the results file as soon as it finishes.
+ * If the results file already contains some runs, for example because an earlier experiment was stopped, those runs are skipped so the grid is resumed.
+ *
+ * Usage: java Experiment {results file} [functions=rok,ack,ras] [topologies=gl,ri,vn,ra] [sizes=16,30,49] [reps=30] [workers=cores] [seed=0]
+ *        [target=value] [stagnation=iterations] [diversity=value] [evaluations=count] [millis=time limit] [remote=host:port,...] [cache=entries] [tolerance=0] [mode=async|sync]
+ * The settings from target to millis are stopping criteria that let runs end before 10000 iterations, each result line records which criterion stopped the run.
+ * With remote, the functions are evaluated by EvaluationWorker processes at the given addresses.
+ * With mode=sync, the particles of every swarm are updated synchronously with one thread instead of one after another, so with remote each iteration
+ * sends the whole swarm to the workers at once. The mode is the same for local and remote runs, so every line of a results file comes from the same algorithm.
+ * With cache, each swarm keeps the values of up to that many positions, quantized to the tolerance, for functions that are expensive (see CachingEvaluator).
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class Experiment {
+
+    //the first line of the results file
+    static final String HEADER = "function,topology,size,rep,seed,millis,best1000,best2000,best3000,best4000,best5000,best6000,best7000,best8000,best9000,best10000,stopReason,evaluations";
+
+    /**
+     * Reads the grid from the arguments, runs every run that is not in the results file yet and appends the results.
+     *
+     * @param args is the results file followed by optional key=value settings for the grid.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.out.println("Usage: java Experiment {results file} [functions=rok,ack,ras] [topologies=gl,ri,vn,ra] [sizes=16,30,49] [reps=30] [workers=cores] [seed=0]"
+                    + " [target=value] [stagnation=iterations] [diversity=value] [evaluations=count] [millis=time limit] [remote=host:port,...] [cache=entries] [tolerance=0] [mode=async|sync]");
+            return;
+        }
+
+        File results = new File(args[0]);
+        String[] functions = {"rok", "ack", "ras"};
+        String[] topologies = {"gl", "ri", "vn", "ra"};
+        String[] sizes = {"16", "30", "49"};
+        int reps = 30;
+        int workers = Runtime.getRuntime().availableProcessors();
+        long seed = 0;
+        StoppingCriteria criteria = new StoppingCriteria();
+        List<InetSocketAddress> remote = new ArrayList<InetSocketAddress>();
+        int cacheEntries = 0;
+        double cacheTolerance = 0;
+        boolean synchronous = false;
+
+        for (int i = 1; i < args.length; i++) {
+            String[] setting = args[i].split("=", 2);
+            if (setting.length != 2) {
+                throw new IllegalArgumentException("Expected key=value but got " + args[i]);
+            }
+            if (setting[0].equals("functions")) {
+                functions = setting[1].split(",");
+            } else if (setting[0].equals("topologies")) {
+                topologies = setting[1].split(",");
+            } else if (setting[0].equals("sizes")) {
+                sizes = setting[1].split(",");
+            } else if (setting[0].equals("reps")) {
+                reps = Integer.parseInt(setting[1]);
+            } else if (setting[0].equals("workers")) {
+                workers = Integer.parseInt(setting[1]);
+            } else if (setting[0].equals("seed")) {
+                seed = Long.parseLong(setting[1]);
+            } else if (setting[0].equals("target")) {
+                criteria.setTargetValue(Double.parseDouble(setting[1]));
+            } else if (setting[0].equals("stagnation")) {
+                criteria.setStagnationIterations(Integer.parseInt(setting[1]));
+            } else if (setting[0].equals("diversity")) {
+                criteria.setMinDiversity(Double.parseDouble(setting[1]));
+            } else if (setting[0].equals("evaluations")) {
+                criteria.setMaxEvaluations(Long.parseLong(setting[1]));
+            } else if (setting[0].equals("millis")) {
+                criteria.setTimeLimitMillis(Long.parseLong(setting[1]));
+            } else if (setting[0].equals("remote")) {
+                for (String address : setting[1].split(",")) {
+                    int colon = address.lastIndexOf(':');
+                    remote.add(new InetSocketAddress(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1))));
+                }
+            } else if (setting[0].equals("cache")) {
+                cacheEntries = Integer.parseInt(setting[1]);
+            } else if (setting[0].equals("tolerance")) {
+                cacheTolerance = Double.parseDouble(setting[1]);
+            } else if (setting[0].equals("mode")) {
+                if (!setting[1].equals("async") && !setting[1].equals("sync")) {
+                    throw new IllegalArgumentException("The mode must be async or sync but is " + setting[1]);
+                }
+                synchronous = setting[1].equals("sync");
+            } else {
+                throw new IllegalArgumentException("Unknown setting " + setting[0]);
+            }
+        }
+
+        //the runs that are already in the results file
+        Set<String> done = readCompleted(results);
+
+        List<Run> runs = new ArrayList<Run>();
+        for (String function : functions) {
+            for (String topology : topologies) {
+                for (String size : sizes) {
+                    for (int rep = 0; rep < reps; rep++) {
+                        Run run = new Run(function, topology, Integer.parseInt(size), rep, seed, criteria, remote, cacheEntries, cacheTolerance, synchronous);
+                        if (!done.contains(run.key())) {
+                            runs.add(run);
+                        }
+                    }
+                }
+            }
+        }
+        System.out.println(done.size() + " runs already completed, " + runs.size() + " runs to go");
+
+        boolean newFile = !results.exists() || results.length() == 0;
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try (BufferedWriter out = new BufferedWriter(new FileWriter(results, true))) {
+            if (newFile) {
+                out.write(HEADER);
+                out.newLine();
+                out.flush();
+            }
+
+            CompletionService<String> completed = new ExecutorCompletionService<String>(pool);
+            for (Run run : runs) {
+                completed.submit(run);
+            }
+
+            //results are written on this thread in the order the runs finish, and flushed so a stopped experiment loses no finished runs
+            for (int i = 0; i < runs.size(); i++) {
+                try {
+                    out.write(completed.take().get());
+                    out.newLine();
+                    out.flush();
+                } catch (ExecutionException e) {
+                    System.err.println("Run failed: " + e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Reads the keys (function, topology, size and repetition) of the runs that are already in the results file.
+     *
+     * @param results is the results file, which might not exist yet.
+     * @return the keys of the completed runs.
+     */
+    private static Set<String> readCompleted(File results) throws IOException {
+        Set<String> done = new HashSet<String>();
+        if (!results.exists()) {
+            return done;
+        }
+        try (BufferedReader in = new BufferedReader(new FileReader(results))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] columns = line.split(",");
+                //skips the header and any line cut off by a stopped experiment
+                if (line.equals(HEADER) || columns.length != HEADER.split(",").length) {
+                    continue;
+                }
+                done.add(columns[0] + "," + columns[1] + "," + columns[2] + "," + columns[3]);
+            }
+        }
+        return done;
+    }
+
+    /**
+     * One run of the grid. The seed of a run only depends on the master seed and the run's key, so a resumed grid runs the same swarms it would have run originally.
+     */
+    private static class Run implements Callable<String> {
+        private final String function;
+        private final String topology;
+        private final int size;
+        private final int rep;
+        private final long seed;
+        private final StoppingCriteria criteria;
+        private final List<InetSocketAddress> remote;
+        private final int cacheEntries;
+        private final double cacheTolerance;
+        private final boolean synchronous;
+
+        Run(String function, String topology, int size, int rep, long masterSeed, StoppingCriteria criteria, List<InetSocketAddress> remote,
+                int cacheEntries, double cacheTolerance, boolean synchronous) {
+            this.function = function;
+            this.topology = topology;
+            this.size = size;
+            this.rep = rep;
+            this.seed = masterSeed * 31 + key().hashCode();
+            this.criteria = criteria;
+            this.remote = remote;
+            this.cacheEntries = cacheEntries;
+            this.cacheTolerance = cacheTolerance;
+            this.synchronous = synchronous;
+        }
+
+        String key() {
+            return function + "," + topology + "," + size + "," + rep;
+        }
+
+        public String call() throws IOException {
+            long start = System.nanoTime();
+            Swarm swarm = new Swarm(size, function, topology, synchronous, 1, seed);
+            swarm.setStoppingCriteria(criteria);
+            double[] iterations;
+            if (remote.isEmpty()) {
+                swarm.setEvaluationCache(cacheEntries, cacheTolerance);
+                iterations = swarm.run();
+            } else {
+                //two chunks per worker, so every worker has its second chunk waiting while it evaluates the first
+                try (RemoteEvaluator evaluator = new RemoteEvaluator(function, remote, Math.max(1, size / (2 * remote.size())), 2, 10000)) {
+                    swarm.setEvaluator(evaluator);
+                    swarm.setEvaluationCache(cacheEntries, cacheTolerance);
+                    iterations = swarm.run();
+                }
+            }
+            long millis = (System.nanoTime() - start) / 1000000;
+
+            StringBuilder line = new StringBuilder(key());
+            //the seed column is the master seed of the swarm, which repeats the run on its own
+            line.append(',').append(swarm.getSeed()).append(',').append(millis);
+            for (double best : iterations) {
+                line.append(',').append(best);
+            }
+            line.append(',').append(swarm.getStopReason()).append(',').append(swarm.getEvaluations());
+            return line.toString();
+        }
+    }
+}
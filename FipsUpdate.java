@@ -0,0 +1,65 @@
+/**
+ * The fully informed update (FIPS) of Mendes, Kennedy and Neves. Instead of following only the best of its neighborhood,
+ * a particle is attracted by the personal bests of all members of its neighborhood, each with an equal share of the acceleration:
+ * v = chi * (v + sum over the K members m of U(0, phi / K) * (pbest_m - x)), then x = x + v.
+ * The members are read straight from the rows of the topology, so this works for every topology, including dynamic ones.
+ * With the global topology every particle is informed by the whole swarm, which is known to work poorly, so FIPS is meant for the sparser topologies.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class FipsUpdate implements UpdateStrategy {
+
+    //the total acceleration coefficient, shared by the members of the neighborhood
+    private final double phi;
+
+    // constriction factor
+    private final double constrictionFactor;
+
+    /**
+     * Constructor for the usual setting: phi of 4.1 and a constriction factor of 0.7298.
+     */
+    public FipsUpdate() {
+        this(4.1, 0.7298);
+    }
+
+    /**
+     * Constructor for the update.
+     *
+     * @param phi is the total acceleration coefficient.
+     * @param constrictionFactor is the constriction factor.
+     */
+    public FipsUpdate(double phi, double constrictionFactor) {
+        this.phi = phi;
+        this.constrictionFactor = constrictionFactor;
+    }
+
+    public void move(SwarmState state, int particle, Topology topology, int neighborhood, int nbest, RandomStream rand) {
+        int dimensions = state.dimensions;
+        double[] position = state.position;
+        double[] velocity = state.velocity;
+        double[] pbestPosition = state.pbestPosition;
+        double[] vmax = state.vmax;
+        int offset = state.offset(particle);
+
+        int from = topology.offsets[neighborhood];
+        int degree = topology.offsets[neighborhood + 1] - from;
+        double share = phi / degree;
+        double[] coefficients = rand.uniforms(degree * dimensions);
+
+        for (int i = 0; i < dimensions; i++) {
+            int k = offset + i;
+            double x = position[k];
+            double attract = 0;
+            for (int m = 0; m < degree; m++) {
+                int memberOffset = state.offset(topology.indices[from + m]);
+                attract += (pbestPosition[memberOffset + i] - x) * (coefficients[m * dimensions + i] * share);
+            }
+
+            double newVelocity = (velocity[k] + attract) * constrictionFactor;
+            double limit = vmax[i];
+            newVelocity = newVelocity > limit ? limit : newVelocity < -limit ? -limit : newVelocity;
+            velocity[k] = newVelocity;
+            position[k] = newVelocity + x;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Adapter that evaluates a batch of particles by calling an ObjectiveFunction once per particle.
+ * When it is called from inside a ForkJoinPool (as in the synchronous mode of the swarm), the batch is split into one range per pool thread that are evaluated in parallel.
+ * The range tasks are created once and reused by every batch, so the iteration loop does not allocate, which means an adapter must only evaluate one batch at a time.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class FunctionEvaluator implements BatchEvaluator {
+
+    //the function evaluated for every particle
+    private final ObjectiveFunction function;
+
+    //the tasks that evaluate the ranges of a batch in parallel, one per range
+    private EvaluationRange[] tasks = new EvaluationRange[0];
+
+    /**
+     * Constructor for the adapter.
+     *
+     * @param function is the function evaluated for every particle.
+     */
+    public FunctionEvaluator(ObjectiveFunction function) {
+        this.function = function;
+    }
+
+    /**
+     * Evaluates the particles from (inclusive) to to (exclusive), in parallel if this is called from a ForkJoinPool.
+     *
+     * @param positions is the position matrix of the swarm.
+     * @param dimensions is the number of dimensions of each position.
+     * @param from is the first particle to evaluate.
+     * @param to is one past the last particle to evaluate.
+     * @param values receives the value of particle p at index p.
+     */
+    public void evaluate(double[] positions, int dimensions, int from, int to, double[] values) {
+        int ranges = ForkJoinTask.inForkJoinPool() ? Math.min(ForkJoinTask.getPool().getParallelism(), to - from) : 1;
+        if (ranges <= 1) {
+            evaluateRange(positions, dimensions, from, to, values);
+            return;
+        }
+
+        if (tasks.length != ranges) {
+            tasks = new EvaluationRange[ranges];
+            for (int r = 0; r < ranges; r++) {
+                tasks[r] = new EvaluationRange();
+            }
+        }
+        for (int r = 0; r < ranges; r++) {
+            EvaluationRange task = tasks[r];
+            task.reinitialize();
+            task.positions = positions;
+            task.dimensions = dimensions;
+            task.from = from + r * (to - from) / ranges;
+            task.to = from + (r + 1) * (to - from) / ranges;
+            task.values = values;
+        }
+        ForkJoinTask.invokeAll(tasks);
+    }
+
+    /**
+     * Evaluates a range of particles on the calling thread.
+     *
+     * @param positions is the position matrix of the swarm.
+     * @param dimensions is the number of dimensions of each position.
+     * @param from is the first particle to evaluate.
+     * @param to is one past the last particle to evaluate.
+     * @param values receives the value of particle p at index p.
+     */
+    private void evaluateRange(double[] positions, int dimensions, int from, int to, double[] values) {
+        for (int p = from; p < to; p++) {
+            values[p] = function.evaluate(positions, p * dimensions, dimensions);
+        }
+    }
+
+    /**
+     * A reusable task that evaluates one range of a batch. Its fields are set before every batch.
+     */
+    private class EvaluationRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        double[] positions;
+        int dimensions;
+        int from;
+        int to;
+        double[] values;
+
+        protected void compute() {
+            evaluateRange(positions, dimensions, from, to, values);
+        }
+    }
+
+    /**
+     * Getter method for the adapted function.
+     * @return the function evaluated for every particle.
+     */
+    public ObjectiveFunction getFunction() {
+        return function;
+    }
+}
@@ -0,0 +1,81 @@
+import java.nio.ByteBuffer;
+import java.util.random.RandomGenerator;
+
+/**
+ * Dynamic topology whose connectivity increases during the run. The neighborhoods are rings whose radius grows linearly from 1 at the start
+ * to half the swarm at the given iteration, so the swarm starts out exploring like a ring and ends up converging like the global topology.
+ * It replaces the neighborhoods of whatever topology the swarm was created with, which must have one neighborhood per particle.
+ * Room for the largest neighborhoods is made the first time it runs, so growing the rings later does not allocate.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class IncreasingConnectivity implements TopologyRewiring {
+
+    //the iteration at which the rings reach their largest radius
+    private final int fullIteration;
+
+    //the radius of the rings at the moment, 0 before the first rewiring
+    private int radius;
+
+    /**
+     * Constructor for the rewiring.
+     *
+     * @param fullIteration is the iteration at which every particle's neighborhood covers the whole swarm.
+     */
+    public IncreasingConnectivity(int fullIteration) {
+        this.fullIteration = Math.max(1, fullIteration);
+    }
+
+    public void rewire(int iteration, Topology topology, NeighborhoodBest nbest, SwarmState state, RandomGenerator rand) {
+        int size = topology.size;
+        if (topology.getNeighborhoods() != size) {
+            throw new IllegalStateException("Increasing connectivity needs one neighborhood per particle");
+        }
+        int maxRadius = Math.max(1, size / 2);
+        int newRadius = 1 + (int) ((long) (maxRadius - 1) * Math.min(iteration, fullIteration) / fullIteration);
+        if (newRadius == radius) {
+            return;
+        }
+        if (radius == 0) {
+            topology.ensureCapacity(size * Math.min(size, 2 * maxRadius + 1));
+        }
+        radius = newRadius;
+
+        int degree = Math.min(size, 2 * radius + 1);
+        int[] indices = topology.indices;
+        for (int p = 0; p < size; p++) {
+            int start = p * degree;
+            topology.offsets[p] = start;
+            indices[start] = p;
+            int next = start + 1;
+            //a neighborhood never holds more than the whole swarm, which for a single particle is only the particle itself
+            for (int r = 1; r <= radius && next < start + degree; r++) {
+                indices[next++] = Math.floorMod(p - r, size);
+                //in an even swarm the ring of half the swarm reaches the opposite particle from both sides, so it is added once
+                if (2 * r != size) {
+                    indices[next++] = Math.floorMod(p + r, size);
+                }
+            }
+        }
+        topology.offsets[size] = size * degree;
+
+        topology.buildMemberships();
+        nbest.rebuild();
+    }
+
+    public void reset() {
+        radius = 0;
+    }
+
+    public int stateBytes() {
+        return Integer.BYTES;
+    }
+
+    public void saveState(ByteBuffer out) {
+        out.putInt(radius);
+    }
+
+    public void restoreState(ByteBuffer in) {
+        radius = in.getInt();
+    }
+}
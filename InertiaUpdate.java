@@ -0,0 +1,66 @@
+/**
+ * The inertia weight update of Shi and Eberhart, with an inertia weight that decreases linearly over the run:
+ * v = w * v + U(0, c1) * (pbest - x) + U(0, c2) * (nbest - x), then x = x + v.
+ * A large weight at the start lets the particles explore, a small weight at the end lets them settle. The weight is taken from SwarmState.progress,
+ * so it goes from the start weight at the first iteration to the end weight at the maximum number of iterations of the stopping criteria.
+ * Without the constriction factor the velocities are not bounded, so this update is usually combined with a velocity limit.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class InertiaUpdate implements UpdateStrategy {
+
+    //the inertia weight at the start and at the end of the run
+    private final double startWeight;
+    private final double endWeight;
+
+    //the personal best and neighborhood best acceleration coefficients
+    private final double c1;
+    private final double c2;
+
+    /**
+     * Constructor for the usual setting: a weight going from 0.9 to 0.4, and both acceleration coefficients 2.
+     */
+    public InertiaUpdate() {
+        this(0.9, 0.4, 2.0, 2.0);
+    }
+
+    /**
+     * Constructor for the update.
+     *
+     * @param startWeight is the inertia weight at the first iteration.
+     * @param endWeight is the inertia weight at the last iteration.
+     * @param c1 is the personal best acceleration coefficient.
+     * @param c2 is the neighborhood best acceleration coefficient.
+     */
+    public InertiaUpdate(double startWeight, double endWeight, double c1, double c2) {
+        this.startWeight = startWeight;
+        this.endWeight = endWeight;
+        this.c1 = c1;
+        this.c2 = c2;
+    }
+
+    public void move(SwarmState state, int particle, Topology topology, int neighborhood, int nbest, RandomStream rand) {
+        int dimensions = state.dimensions;
+        double[] position = state.position;
+        double[] velocity = state.velocity;
+        double[] pbestPosition = state.pbestPosition;
+        double[] vmax = state.vmax;
+        int offset = state.offset(particle);
+        int nbestOffset = state.offset(nbest);
+
+        double weight = startWeight + (endWeight - startWeight) * Math.min(1, state.progress);
+        double[] coefficients = rand.uniforms(2 * dimensions);
+
+        for (int i = 0; i < dimensions; i++) {
+            int k = offset + i;
+            double pBestAttract = (pbestPosition[k] - position[k]) * (coefficients[i] * c1);
+            double nBestAttract = (pbestPosition[nbestOffset + i] - position[k]) * (coefficients[dimensions + i] * c2);
+
+            double newVelocity = weight * velocity[k] + (nBestAttract + pBestAttract);
+            double limit = vmax[i];
+            newVelocity = newVelocity > limit ? limit : newVelocity < -limit ? -limit : newVelocity;
+            velocity[k] = newVelocity;
+            position[k] = newVelocity + position[k];
+        }
+    }
+}
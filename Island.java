@@ -0,0 +1,103 @@
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Island class, one swarm of an island model together with its inbox of migrants.
+ * Every migration interval the swarm's thread sends a copy of its best particle to the inboxes of the islands it is connected to,
+ * and then lets every migrant in its own inbox replace its worst particle if the migrant is better. The inboxes are lock-free queues
+ * that are only polled, never waited on, so an island never waits for the others and the islands stay unsynchronized between migrations.
+ * A migrant is an array holding the personal best value followed by the personal best position, and is never changed after it is sent.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class Island {
+
+    //the swarm of this island
+    private final Swarm swarm;
+
+    //the migrants sent to this island that have not arrived yet
+    private final ConcurrentLinkedQueue<double[]> inbox = new ConcurrentLinkedQueue<double[]>();
+
+    //the islands this island sends its best particle to
+    private Island[] targets = new Island[0];
+
+    //the number of migrants sent, received and accepted by this island
+    private volatile long sent;
+    private volatile long received;
+    private volatile long accepted;
+
+    /**
+     * Constructor for an island.
+     *
+     * @param swarm is the swarm of this island.
+     */
+    public Island(Swarm swarm) {
+        this.swarm = swarm;
+    }
+
+    /**
+     * Setter method for the islands this island sends its best particle to.
+     * @param targets are the islands migrants are sent to.
+     */
+    void setTargets(Island[] targets) {
+        this.targets = targets;
+    }
+
+    /**
+     * Sends the best particle to the target islands and takes in the migrants that arrived. Called by the swarm on its own thread.
+     */
+    void migrate() {
+        if (targets.length > 0) {
+            int best = swarm.bestParticle();
+            Particle particle = swarm.getParticle(best);
+            double[] migrant = new double[1 + swarm.getDimensions()];
+            migrant[0] = particle.getPBest();
+            for (int i = 0; i < swarm.getDimensions(); i++) {
+                migrant[1 + i] = particle.getPBestPosition(i);
+            }
+            for (Island target : targets) {
+                target.inbox.offer(migrant);
+            }
+            sent += targets.length;
+        }
+
+        double[] migrant;
+        while ((migrant = inbox.poll()) != null) {
+            received++;
+            if (swarm.replaceWorst(migrant, 1, migrant[0])) {
+                accepted++;
+            }
+        }
+    }
+
+    /**
+     * Getter method for the swarm of this island.
+     * @return the swarm.
+     */
+    public Swarm getSwarm() {
+        return swarm;
+    }
+
+    /**
+     * Getter method for the number of migrants sent.
+     * @return the number of migrants this island sent to other islands.
+     */
+    public long getSent() {
+        return sent;
+    }
+
+    /**
+     * Getter method for the number of migrants received.
+     * @return the number of migrants that arrived at this island.
+     */
+    public long getReceived() {
+        return received;
+    }
+
+    /**
+     * Getter method for the number of migrants accepted.
+     * @return the number of migrants that replaced a worse particle of this island.
+     */
+    public long getAccepted() {
+        return accepted;
+    }
+}
@@ -0,0 +1,171 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * IslandModel class that solves one function with several swarms (islands) at once, each on its own thread and each with its own topology,
+ * so a single hard problem can use all cores and ensembles of mixed topologies can be compared with single swarms.
+ * Every migration interval each island sends its best particle to the islands it is connected to, either the next island in a ring
+ * or all other islands, see Island. Since the islands do not wait for each other, a run depends on how the threads are scheduled
+ * and is not repeatable from its seed, unlike a single swarm.
+ *
+ * Usage: java IslandModel {function} {topologies} {island size} [interval=100] [migration=ring|all] [seed=random]
+ * Example: java IslandModel ras gl,ri,vn,ra 30 interval=50 migration=all
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class IslandModel {
+
+    //the islands, one per topology
+    private final Island[] islands;
+
+    //the seed the seeds of the islands are drawn from
+    private final long seed;
+
+    /**
+     * Constructor for an island model, which creates the swarms and connects the islands but does not run them, see run().
+     *
+     * @param function is the function that all islands solve.
+     * @param topologies is the topology of each island, one island is created per entry.
+     * @param islandSize is the number of particles of each island.
+     * @param interval is the number of iterations between two migrations.
+     * @param migration is how the islands are connected: ring (each island sends to the next) or all (each island sends to every other island).
+     * @param seed is the seed the seeds of the islands are drawn from.
+     */
+    public IslandModel(String function, String[] topologies, int islandSize, int interval, String migration, long seed) {
+        this.seed = seed;
+        RandomStream seeds = new RandomStream(seed);
+        islands = new Island[topologies.length];
+        for (int i = 0; i < islands.length; i++) {
+            Swarm swarm = new Swarm(islandSize, function, topologies[i], false, 1, seeds.nextLong());
+            islands[i] = new Island(swarm);
+            swarm.setIsland(islands[i], interval);
+        }
+
+        for (int i = 0; i < islands.length; i++) {
+            if (islands.length == 1) {
+                continue;
+            }
+            if (migration.equals("ring")) {
+                islands[i].setTargets(new Island[] {islands[(i + 1) % islands.length]});
+            } else if (migration.equals("all")) {
+                Island[] targets = new Island[islands.length - 1];
+                for (int j = 0, t = 0; j < islands.length; j++) {
+                    if (j != i) {
+                        targets[t++] = islands[j];
+                    }
+                }
+                islands[i].setTargets(targets);
+            } else {
+                throw new IllegalArgumentException("Unknown migration " + migration);
+            }
+        }
+    }
+
+    /**
+     * Runs all islands at once, one thread per island, until each has met its stopping criteria.
+     *
+     * @return the best solution found by any island at every 1000 iterations.
+     */
+    public double[] run() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(islands.length);
+        try {
+            List<Callable<double[]>> runs = new ArrayList<Callable<double[]>>();
+            for (Island island : islands) {
+                runs.add(island.getSwarm()::run);
+            }
+            List<Future<double[]>> results = pool.invokeAll(runs);
+
+            double[] best = null;
+            for (int i = 0; i < results.size(); i++) {
+                double[] iterations;
+                try {
+                    iterations = results.get(i).get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Island " + i + " failed", e.getCause());
+                }
+                if (best == null) {
+                    best = iterations.clone();
+                }
+                for (int j = 0; j < Math.min(best.length, iterations.length); j++) {
+                    best[j] = Math.min(best[j], iterations[j]);
+                }
+            }
+            return best;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Getter method for an island.
+     *
+     * @param index is the index of the island.
+     * @return the island at that index.
+     */
+    public Island getIsland(int index) {
+        return islands[index];
+    }
+
+    /**
+     * Getter method for the number of islands.
+     * @return the number of islands.
+     */
+    public int size() {
+        return islands.length;
+    }
+
+    /**
+     * Getter method for the seed.
+     * @return the seed the seeds of the islands are drawn from.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Runs an island model from the command line and prints the best solution found by any island at every 1000 iterations,
+     * followed by the best solution and the number of migrants sent and accepted by each island.
+     *
+     * @param args are the function, the comma separated topologies, the island size and optional key=value settings.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 3) {
+            System.out.println("Usage: java IslandModel {function} {topologies} {island size} [interval=100] [migration=ring|all] [seed=random]");
+            return;
+        }
+        int interval = 100;
+        String migration = "ring";
+        long seed = new RandomStream(System.nanoTime()).nextLong();
+        for (int i = 3; i < args.length; i++) {
+            String[] setting = args[i].split("=", 2);
+            if (setting.length != 2) {
+                throw new IllegalArgumentException("Expected key=value but got " + args[i]);
+            }
+            if (setting[0].equals("interval")) {
+                interval = Integer.parseInt(setting[1]);
+            } else if (setting[0].equals("migration")) {
+                migration = setting[1];
+            } else if (setting[0].equals("seed")) {
+                seed = Long.parseLong(setting[1]);
+            } else {
+                throw new IllegalArgumentException("Unknown setting " + setting[0]);
+            }
+        }
+
+        String[] topologies = args[1].split(",");
+        IslandModel model = new IslandModel(args[0], topologies, Integer.parseInt(args[2]), interval, migration, seed);
+        System.out.println(Arrays.toString(model.run()));
+        for (int i = 0; i < model.size(); i++) {
+            Island island = model.getIsland(i);
+            System.out.println(topologies[i] + ": best " + island.getSwarm().getParticle(island.getSwarm().bestParticle()).getPBest()
+                    + ", sent " + island.getSent() + ", accepted " + island.getAccepted());
+        }
+        System.out.println("seed " + seed);
+    }
+}
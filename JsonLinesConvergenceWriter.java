@@ -0,0 +1,50 @@
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes convergence samples to a JSON lines file, one JSON object per sampled iteration.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class JsonLinesConvergenceWriter implements ConvergenceListener {
+
+    private final Writer out;
+
+    /**
+     * Constructor that creates the file.
+     *
+     * @param fileName is the name of the JSON lines file.
+     */
+    public JsonLinesConvergenceWriter(String fileName) throws IOException {
+        out = new BufferedWriter(new FileWriter(fileName));
+    }
+
+    public void onSample(long iteration, double globalBest, double nbestSpread, double meanVelocity, double diversity, long iterationNanos) throws IOException {
+        out.write("{\"iteration\":" + iteration
+                + ",\"globalBest\":" + number(globalBest)
+                + ",\"nbestSpread\":" + number(nbestSpread)
+                + ",\"meanVelocity\":" + number(meanVelocity)
+                + ",\"diversity\":" + number(diversity)
+                + ",\"iterationNanos\":" + iterationNanos + "}\n");
+    }
+
+    /**
+     * JSON has no infinity or NaN, so those are written as null.
+     *
+     * @param value is the value to write.
+     * @return the value as JSON.
+     */
+    private static String number(double value) {
+        return Double.isNaN(value) || Double.isInfinite(value) ? "null" : Double.toString(value);
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,152 @@
+import java.util.Arrays;
+
+/**
+ * Histogram of durations in nanoseconds with logarithmic buckets, in the style of HdrHistogram. Values below 32 have a bucket each,
+ * and every power of two above that is split into 16 buckets, so a bucket is never wider than 1/16 of the values in it and
+ * percentiles are accurate to about 6% over the whole range of a long. Recording a value only increments one counter, with no allocation.
+ * A histogram is not thread-safe, it is filled by one thread and merged into others under their owner's lock.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class LogHistogram {
+
+    //the buckets split every power of two into 2^SUB_BITS, and the values below 2^(SUB_BITS + 1) are counted exactly
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int EXACT = 2 * SUB_BUCKETS;
+
+    //the number of values in each bucket
+    private final long[] counts = new long[EXACT + (63 - SUB_BITS - 1) * SUB_BUCKETS];
+
+    //the number of values, their sum and the largest value
+    private long count;
+    private long sum;
+    private long max;
+
+    /**
+     * Adds a value to the histogram. Negative values, which System.nanoTime() can give on some systems, are counted as 0.
+     *
+     * @param value is the duration in nanoseconds.
+     */
+    public void record(long value) {
+        value = Math.max(0, value);
+        counts[bucket(value)]++;
+        count++;
+        sum += value;
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds all values of another histogram to this one.
+     *
+     * @param other is the histogram whose values are added.
+     */
+    public void merge(LogHistogram other) {
+        for (int b = 0; b < counts.length; b++) {
+            counts[b] += other.counts[b];
+        }
+        count += other.count;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Removes all values.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    /**
+     * Finds the value below which the given fraction of the values lie.
+     *
+     * @param quantile is the fraction, for example 0.99 for the 99th percentile.
+     * @return the middle of the bucket holding the quantile, or 0 if the histogram is empty.
+     */
+    public long percentile(double quantile) {
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int b = 0; b < counts.length; b++) {
+            seen += counts[b];
+            if (seen >= rank) {
+                return Math.min(max, lowest(b) + width(b) / 2);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the bucket of a value.
+     *
+     * @param value is a value that is not negative.
+     * @return the index of its bucket.
+     */
+    private static int bucket(long value) {
+        if (value < EXACT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return EXACT + (exponent - SUB_BITS - 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Returns the lowest value of a bucket.
+     *
+     * @param bucket is the index of the bucket.
+     * @return the lowest value counted in it.
+     */
+    private static long lowest(int bucket) {
+        if (bucket < EXACT) {
+            return bucket;
+        }
+        int exponent = (bucket - EXACT) / SUB_BUCKETS + SUB_BITS + 1;
+        int sub = (bucket - EXACT) % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub) << (exponent - SUB_BITS);
+    }
+
+    /**
+     * Returns the number of values a bucket covers.
+     *
+     * @param bucket is the index of the bucket.
+     * @return the width of the bucket.
+     */
+    private static long width(int bucket) {
+        return bucket < EXACT ? 1 : 1L << ((bucket - EXACT) / SUB_BUCKETS + 1);
+    }
+
+    /**
+     * Getter method for the number of values.
+     * @return the number of values recorded.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Getter method for the sum.
+     * @return the sum of all values recorded.
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * Getter method for the mean.
+     * @return the mean of the values, or 0 if the histogram is empty.
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Getter method for the largest value.
+     * @return the largest value recorded.
+     */
+    public long getMax() {
+        return max;
+    }
+}
@@ -0,0 +1,72 @@
+import java.util.Arrays;
+
+/**
+ * Main class that runs one swarm from the command line and prints the best solution found at every 1000 iterations, followed by the seed that repeats the run.
+ *
+ * Usage: java Main {function} {topology} {swarm size} [dimensions=30] [phi1=2.05] [phi2=2.05] [constriction=0.7298] [threads=1] [seed=random] [strategy=constriction|inertia|fips|barebones] [boundary=none|clamp|reflect|absorb|random] [vmax=none] [cache=0] [tolerance=0]
+ * Example: java Main ack ri 49
+ * With more than one thread, the particles are updated synchronously in parallel.
+ * The constriction and fips strategies use phi1, phi2 and the constriction factor, the bounds of the boundary policy are those of the function,
+ * and vmax limits the absolute velocity in every dimension. With cache, up to that many values of an expensive function are cached, see CachingEvaluator.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class Main {
+
+    /**
+     * Reads the configuration from the arguments and runs the swarm.
+     *
+     * @param args are the function, the topology, the swarm size and optional key=value settings.
+     */
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.out.println("Usage: java Main {function} {topology} {swarm size} [dimensions=30] [phi1=2.05] [phi2=2.05] [constriction=0.7298] [threads=1] [seed=random] [strategy=constriction|inertia|fips|barebones] [boundary=none|clamp|reflect|absorb|random] [vmax=none] [cache=0] [tolerance=0]");
+            return;
+        }
+
+        SwarmConfig.Builder builder = SwarmConfig.builder().function(args[0]).topology(args[1]).particles(Integer.parseInt(args[2]));
+        double phi1 = 2.05;
+        double phi2 = 2.05;
+        double constriction = 0.7298;
+        String strategy = "constriction";
+        int cacheEntries = 0;
+        double cacheTolerance = 0;
+        for (int i = 3; i < args.length; i++) {
+            String[] setting = args[i].split("=", 2);
+            if (setting.length != 2) {
+                throw new IllegalArgumentException("Expected key=value but got " + args[i]);
+            }
+            if (setting[0].equals("dimensions")) {
+                builder.dimensions(Integer.parseInt(setting[1]));
+            } else if (setting[0].equals("phi1")) {
+                phi1 = Double.parseDouble(setting[1]);
+            } else if (setting[0].equals("phi2")) {
+                phi2 = Double.parseDouble(setting[1]);
+            } else if (setting[0].equals("constriction")) {
+                constriction = Double.parseDouble(setting[1]);
+            } else if (setting[0].equals("threads")) {
+                int threads = Integer.parseInt(setting[1]);
+                builder.threads(threads).synchronous(threads > 1);
+            } else if (setting[0].equals("seed")) {
+                builder.seed(Long.parseLong(setting[1]));
+            } else if (setting[0].equals("strategy")) {
+                strategy = setting[1];
+            } else if (setting[0].equals("boundary")) {
+                builder.boundary(BoundaryPolicy.forName(setting[1]));
+            } else if (setting[0].equals("vmax")) {
+                builder.velocityLimit(Double.parseDouble(setting[1]));
+            } else if (setting[0].equals("cache")) {
+                cacheEntries = Integer.parseInt(setting[1]);
+            } else if (setting[0].equals("tolerance")) {
+                cacheTolerance = Double.parseDouble(setting[1]);
+            } else {
+                throw new IllegalArgumentException("Unknown setting " + setting[0]);
+            }
+        }
+
+        builder.cache(cacheEntries, cacheTolerance).phi(phi1, phi2).constrictionFactor(constriction).strategy(UpdateStrategy.forName(strategy, phi1, phi2, constriction));
+        SwarmResult result = new SwarmRunner(builder.build()).run();
+        System.out.println(Arrays.toString(result.getBestPerThousand()));
+        System.out.println("seed " + result.getSeed());
+    }
+}
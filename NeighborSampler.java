@@ -0,0 +1,102 @@
+import java.nio.ByteBuffer;
+import java.util.random.RandomGenerator;
+
+/**
+ * NeighborSampler class that chooses random neighbors for a particle without repetition.
+ * It keeps a permutation of all particles together with the position of every particle in it. Choosing k particles is a partial Fisher-Yates shuffle
+ * of that permutation, which takes k steps regardless of the swarm size, and since the permutation is reused it does not have to be reset or reallocated.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class NeighborSampler {
+
+    //a permutation of all particles, and the position of each particle in it
+    private final int[] permutation;
+    private final int[] position;
+
+    /**
+     * Constructor for a sampler.
+     *
+     * @param size is the number of particles.
+     */
+    public NeighborSampler(int size) {
+        permutation = new int[size];
+        position = new int[size];
+        reset();
+    }
+
+    /**
+     * Puts the permutation back in order, so the sampler chooses the same neighbors as a new one.
+     */
+    void reset() {
+        for (int p = 0; p < permutation.length; p++) {
+            permutation[p] = p;
+            position[p] = p;
+        }
+    }
+
+    /**
+     * Chooses k particles other than the given particle, without repetition, and writes them to out.
+     *
+     * @param particle is the particle whose neighbors are chosen, which is never chosen itself.
+     * @param k is the number of particles to choose, at most the number of particles minus one.
+     * @param rand is the random number generator.
+     * @param out receives the chosen particles.
+     * @param outOffset is the index in out at which the first chosen particle is written.
+     */
+    public void sample(int particle, int k, RandomGenerator rand, int[] out, int outOffset) {
+        int last = permutation.length - 1;
+
+        //moves the particle itself out of the way, to the end of the permutation
+        swap(position[particle], last);
+        for (int i = 0; i < k; i++) {
+            swap(i, i + rand.nextInt(last - i));
+            out[outOffset + i] = permutation[i];
+        }
+    }
+
+    /**
+     * Returns the number of bytes save will write.
+     *
+     * @return the size of the permutation in bytes.
+     */
+    int stateBytes() {
+        return permutation.length * Integer.BYTES;
+    }
+
+    /**
+     * Writes the permutation to a checkpoint, since the neighbors chosen next depend on it.
+     *
+     * @param out is the buffer the permutation is written to.
+     */
+    void save(ByteBuffer out) {
+        Checkpoint.putInts(out, permutation, permutation.length);
+    }
+
+    /**
+     * Reads the permutation written by save, and recomputes the position of every particle from it.
+     *
+     * @param in is the buffer the permutation is read from.
+     */
+    void restore(ByteBuffer in) {
+        Checkpoint.getInts(in, permutation, permutation.length);
+        for (int i = 0; i < permutation.length; i++) {
+            position[permutation[i]] = i;
+        }
+    }
+
+    /**
+     * Swaps two entries of the permutation and updates their positions.
+     *
+     * @param i is the first position.
+     * @param j is the second position.
+     */
+    private void swap(int i, int j) {
+        int a = permutation[i];
+        int b = permutation[j];
+        permutation[i] = b;
+        permutation[j] = a;
+        position[b] = i;
+        position[a] = j;
+    }
+}
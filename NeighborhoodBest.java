@@ -0,0 +1,99 @@
+/**
+ * NeighborhoodBest class that caches the best particle of every neighborhood of a topology.
+ * The cache only changes when a particle reports that its personal best improved, in which case only the neighborhoods that particle is a member of are checked.
+ * Since personal bests only ever get better, the cached best can never become stale, so finding a neighborhood best does not require scanning its members.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class NeighborhoodBest {
+
+    private final Topology topology;
+
+    //the personal best values of the particles
+    private final double[] pbest;
+
+    //the index of the best particle of each neighborhood, saved in checkpoints since ties depend on the order in which particles improved
+    final int[] best;
+
+    //counts the comparisons made to keep the bests up to date when profiling is on, or null if the comparisons are not counted
+    Profiler profiler;
+
+    /**
+     * Constructor for the cache, which finds the best particle of every neighborhood.
+     *
+     * @param topology is the topology whose neighborhoods are cached.
+     * @param state holds the personal bests of the particles.
+     */
+    public NeighborhoodBest(Topology topology, SwarmState state) {
+        this.topology = topology;
+        this.pbest = state.pbest;
+        best = new int[topology.getNeighborhoods()];
+        rebuild();
+    }
+
+    /**
+     * Finds the best particle of every neighborhood from scratch.
+     */
+    public void rebuild() {
+        for (int n = 0; n < best.length; n++) {
+            rescan(n);
+        }
+    }
+
+    /**
+     * Finds the best particle of one neighborhood by scanning its members, for example after the members changed.
+     * If several members are equally good, the first one is kept.
+     *
+     * @param neighborhood is the index of the neighborhood.
+     */
+    public void rescan(int neighborhood) {
+        int[] indices = topology.indices;
+        int bestParticle = indices[topology.offsets[neighborhood]];
+        for (int j = topology.offsets[neighborhood] + 1; j < topology.offsets[neighborhood + 1]; j++) {
+            if (pbest[indices[j]] < pbest[bestParticle]) {
+                bestParticle = indices[j];
+            }
+        }
+        best[neighborhood] = bestParticle;
+        if (Profiler.ENABLED && profiler != null) {
+            profiler.neighborComparisons.add(topology.offsets[neighborhood + 1] - topology.offsets[neighborhood] - 1);
+        }
+    }
+
+    /**
+     * Called when the personal best of a particle has improved. The particle becomes the best of every neighborhood it is a member of
+     * in which its personal best is now better than the cached one.
+     *
+     * @param particle is the index of the particle whose personal best improved.
+     */
+    public void offer(int particle) {
+        int[] memberOf = topology.memberOf;
+        for (int j = topology.memberOffsets[particle]; j < topology.memberOffsets[particle + 1]; j++) {
+            int neighborhood = memberOf[j];
+            if (pbest[particle] < pbest[best[neighborhood]]) {
+                best[neighborhood] = particle;
+            }
+        }
+        if (Profiler.ENABLED && profiler != null) {
+            profiler.neighborComparisons.add(topology.memberOffsets[particle + 1] - topology.memberOffsets[particle]);
+        }
+    }
+
+    /**
+     * Getter method for the best particle of a neighborhood.
+     *
+     * @param neighborhood is the index of the neighborhood.
+     * @return the index of the particle with the best personal best solution in the neighborhood.
+     */
+    public int best(int neighborhood) {
+        return best[neighborhood];
+    }
+
+    /**
+     * Getter method for the topology.
+     * @return the topology whose neighborhoods are cached.
+     */
+    public Topology getTopology() {
+        return topology;
+    }
+}
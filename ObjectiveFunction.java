@@ -0,0 +1,153 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * ObjectiveFunction interface for the functions the swarm minimises.
+ * A function is resolved once per swarm with forName, and every particle then calls evaluate on the same object,
+ * so the call site only ever sees one implementation and the JIT can inline it.
+ * Besides the three built-in functions, any class with a public no-argument constructor that implements this interface can be used by passing its class name.
+ * Running with -Dpso.vector=true selects the Vector API versions of the built-in functions (see the vector directory) when they are available.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public interface ObjectiveFunction {
+
+    /**
+     * Evaluates the function at one position vector.
+     *
+     * @param x is the array holding the position vector, for example the positions of the whole swarm.
+     * @param offset is the index in x at which the position vector starts.
+     * @param dimensions is the number of dimensions of the position vector.
+     * @return the value of the function at the position.
+     */
+    double evaluate(double[] x, int offset, int dimensions);
+
+    /**
+     * Getter method for the lower bound of the search space in every dimension.
+     * @return the lower bound.
+     */
+    double getLowerBound();
+
+    /**
+     * Getter method for the upper bound of the search space in every dimension.
+     * @return the upper bound.
+     */
+    double getUpperBound();
+
+    /**
+     * Getter method for the lower end of the range particle positions are initialised in.
+     * @return the lowest initial position.
+     */
+    double getInitMin();
+
+    /**
+     * Getter method for the upper end of the range particle positions are initialised in.
+     * @return the highest initial position.
+     */
+    double getInitMax();
+
+    /**
+     * Getter method for the lower end of the range particle velocities are initialised in.
+     * @return the lowest initial velocity.
+     */
+    double getVelocityMin();
+
+    /**
+     * Getter method for the upper end of the range particle velocities are initialised in.
+     * @return the highest initial velocity.
+     */
+    double getVelocityMax();
+
+    /**
+     * Gives a particle its initial position, personal best position and velocity. The coordinates are drawn one dimension after another,
+     * in that order. By default each position coordinate is drawn uniformly from [getInitMin(), getInitMax()) and each velocity
+     * from [getVelocityMin(), getVelocityMax()). The built-in functions override this with the initialisation of the original particle.
+     *
+     * @param position is the array holding the position vector.
+     * @param pbestPosition is the array holding the personal best position vector.
+     * @param velocity is the array holding the velocity vector.
+     * @param offset is the index at which the particle's vectors start.
+     * @param dimensions is the number of dimensions.
+     * @param rand is the random stream of the particle.
+     */
+    default void initialise(double[] position, double[] pbestPosition, double[] velocity, int offset, int dimensions, RandomGenerator rand) {
+        double posMin = getInitMin();
+        double posMax = getInitMax();
+        double velMin = getVelocityMin();
+        double velMax = getVelocityMax();
+        for (int i = offset; i < offset + dimensions; i++) {
+            position[i] = posMin + rand.nextDouble() * (posMax - posMin);
+            pbestPosition[i] = posMin + rand.nextDouble() * (posMax - posMin);
+            velocity[i] = velMin + rand.nextDouble() * (velMax - velMin);
+        }
+    }
+
+    /**
+     * Getter method for the known optimum of the function.
+     * @return the minimum value of the function.
+     */
+    double getOptimum();
+
+    /**
+     * Tells whether one evaluation of the function takes long enough that looking its value up in a cache is worth it.
+     * The built-in functions take a few nanoseconds per dimension, less than hashing the position, so the swarm never caches them.
+     * Slow functions, such as simulations or external programs, should override this to return true.
+     *
+     * @return whether the values of the function are worth caching.
+     */
+    default boolean isExpensive() {
+        return false;
+    }
+
+    /**
+     * Finds the function for a name given by the user. The names rok, ras and ack are the built-in Rosenbrock, Rastrigin and Ackley functions,
+     * any other name is loaded as the class name of an implementation of this interface.
+     * If the pso.vector system property is true, the built-in functions are replaced by their Vector API versions. These need the jdk.incubator.vector module,
+     * so if the module or the compiled classes are not available the scalar versions are used instead.
+     *
+     * @param name is the short name of a built-in function or the class name of an implementation.
+     * @return the function.
+     */
+    static ObjectiveFunction forName(String name) {
+        if (Boolean.getBoolean("pso.vector")) {
+            ObjectiveFunction vectorized = null;
+            if (name.equals("rok")) {
+                vectorized = loadVectorized("VectorRosenbrock");
+            } else if (name.equals("ras")) {
+                vectorized = loadVectorized("VectorRastrigin");
+            } else if (name.equals("ack")) {
+                vectorized = loadVectorized("VectorAckley");
+            }
+            if (vectorized != null) {
+                return vectorized;
+            }
+        }
+
+        if (name.equals("rok")) {
+            return new Rosenbrock();
+        } else if (name.equals("ras")) {
+            return new Rastrigin();
+        } else if (name.equals("ack")) {
+            return new Ackley();
+        }
+
+        try {
+            return (ObjectiveFunction) Class.forName(name).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalArgumentException("Unknown function " + name, e);
+        }
+    }
+
+    /**
+     * Loads one of the Vector API functions by class name.
+     *
+     * @param className is the class name of the vectorized function.
+     * @return the function, or null if it cannot be loaded because the class or the jdk.incubator.vector module is missing.
+     */
+    private static ObjectiveFunction loadVectorized(String className) {
+        try {
+            return (ObjectiveFunction) Class.forName(className).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
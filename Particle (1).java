@@ -1,214 +1,168 @@
-import java.util.List;
-import java.util.ArrayList;
-import java.util.Random;
- 
 /**
  * Particle class that maintains velocity and position vector by initialising and updating them. 
  * The test function is evaluated in this class and the personal best is stored. 
+ * The vectors themselves live in the swarm's SwarmState arrays, the particle only knows where its own slice starts.
  * 
  * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
  */
 public class Particle {
     private int dimensions; 
-     
-    //the velocity vector for the particle
-    private List<Double> velocity; 
-    
-    //the position vector for the particle
-    private List<Double> position; 
-    
-    //the position at which the best solution was found for this particle
-    List<Double> pbestPosition; 
-    
-    //the function being evaluated
-    private String function; 
-    
-    //the personal best value found by the particle over a number of iterations
-    private double pbest; 
-
-    //personal best acceleration coeffecient
-    private double phi1 = 2.05; 
-    
-    // neighborhood best acceleration coefficient
-    private double phi2 = 2.05;  
-    
-    // constriction factor
-    private double constrictionFactor = 0.7298;
-    
-    //a list containing all the neighbors this particle has 
-    private List<Particle> neighbors;
-    
-    private Random rand = new Random(); 
+ 
+    //the arrays holding the position, velocity and personal best of every particle in the swarm
+    private SwarmState state;
+ 
+    //the index of this particle in the swarm
+    private int index;
+ 
+    //the index in the state arrays at which this particle's vectors start
+    private int offset;
+ 
+    //the function being evaluated, resolved once by the swarm
+    private final ObjectiveFunction function; 
+ 
+    //the rule used to move this particle, by default the constricted update of the original experiments 
+    private UpdateStrategy strategy = new ConstrictionUpdate(2.05, 2.05, 0.7298); 
+ 
+    //what happens when this particle leaves the search space 
+    private BoundaryPolicy boundary = BoundaryPolicy.NONE; 
+ 
+    //the cached best particle of every neighborhood in the swarm's topology
+    private NeighborhoodBest nbest;
     
+    //the neighborhood this particle takes its neighborhood best from. For the global topology it is shared by the whole swarm. 
+    private int neighborhood;
+ 
+    //the random stream used by this particle when it updates itself
+    private RandomStream rand; 
+ 
     /**
      * Constructor for a particle. 
      * 
      * @param function is the function that will be evaluated by the particle. 
+     * @param state holds the vectors of every particle in the swarm.
+     * @param index is the index of this particle in the swarm.
+     * @param rand is the random stream this particle is initialised and updated with. 
+     * @param nbest is the neighborhood best cache of the swarm's topology. 
      */
-    public Particle(String function) {
-        velocity = new ArrayList<Double>(); 
-        position = new ArrayList<Double>(); 
-        neighbors = new ArrayList<Particle>(); 
-        pbestPosition = new ArrayList<Double>(); 
-        
-        this.dimensions = 30; 
+    public Particle(ObjectiveFunction function, SwarmState state, int index, RandomStream rand, NeighborhoodBest nbest) {
+        this.nbest = nbest; 
+        this.neighborhood = nbest.getTopology().neighborhoodOf(index); 
+ 
+        this.dimensions = state.dimensions;
+        this.state = state;
+        this.index = index;
+        this.offset = state.offset(index);
         this.function = function; 
-        pbest = Double.MAX_VALUE; 
-        
-        double max = 0; 
-        double min = 0; 
-        
-        //initialises the particles with random values for the velocity and position vectors within a specified range depending on the function being evaluated. 
-        for (int i = 0; i < dimensions; i++) {
-             if (function.equals("rok")) {
-                 min = 15.0; 
-                 max = 30.0; 
-                 position.add(Math.floor(Math.random()*(max-min)+1)+min); 
-                 
-                 //initially sets the personal best position to be the same as current position, but this is updated as position is updated over numerous iterations. 
-                 pbestPosition.add(Math.floor(Math.random()*max-min+1)+min); 
-                 
-                 min = -2.0; 
-                 max = 2.0; 
-                 velocity.add(Math.floor(Math.random()*(max-min)+1)+min);
-                } else if (function.equals("ack")) {
-                    min = 16.0; 
-                    max = 32.0; 
-                    position.add(Math.floor(Math.random()*max-min+1)+min);
-                    pbestPosition.add(Math.floor(Math.random()*max-min+1)+min);
-                    
-                    min = -2.0; 
-                    max = 4.0; 
-                    velocity.add(Math.floor(Math.random()*max-min+1)+min);
-                } else if (function.equals("ras")) {
-        
-                    min = 2.56; 
-                    max = 5.12; 
-                    position.add(Math.floor(Math.random()*max-min+1)+min);
-                    pbestPosition.add(Math.floor(Math.random()*max-min+1)+min); 
-                    
-                    min = -2.0; 
-                    max = 4.0; 
-                    velocity.add(Math.floor(Math.random()*max-min+1)+min);
-            }
-        }
+        this.rand = rand; 
+        initialise(); 
     }
-    
+ 
+    /**
+     * Gives this particle a new random position and velocity and forgets its personal best, as for a new particle. 
+     * The random numbers are taken from the particle's own random stream. 
+     */
+    public void initialise() {
+        state.pbest[index] = Double.MAX_VALUE;
+ 
+        //initialises the particles with random values for the velocity and position vectors, as the function being evaluated chooses. 
+        function.initialise(state.position, state.pbestPosition, state.velocity, offset, dimensions, rand); 
+    }
+ 
+    /**
+     * Setter method for how this particle moves. The swarm sets the same strategy and policy for all its particles before a run. 
+     * 
+     * @param strategy is the rule that computes the new velocity and position. 
+     * @param boundary is what happens when the particle leaves the search space. 
+     */
+    public void setUpdate(UpdateStrategy strategy, BoundaryPolicy boundary) {
+        this.strategy = strategy; 
+        this.boundary = boundary; 
+    }
+ 
     /**
      * Updates this particle's velocity and position vector according to an equation that considers the neighborhood best, the personal best, and some randomisation. 
      * After updating the velocity and position, the method uses the new position to evaluate the function and updates the pbest value and pbestPosition of the particle accordingly. 
+     * All reads and writes go straight to the primitive state arrays, so an update does not allocate.
      */
     public void update() {  
-        double pBestAttract; 
-        double nBestAttract; 
-          
-        for (int i = 0; i < dimensions; i ++) {
-
-             //compute acceleration based on personal best. 
-            pBestAttract = pbestPosition.get(i) - position.get(i);
-            pBestAttract *= rand.nextDouble() * phi1; 
-    
-                 
-            //compute acceleration due to neighborhood best
-            Particle nbest = findNBest(); //finds particle with the best pbest in the neighborhood
-            if (nbest.getPBest() < pbest) { //if the neighbor has a better solution than current particle's position
-                nBestAttract = nbest.getPBestPosition(i) - position.get(i);
-                nBestAttract *= rand.nextDouble() * phi2; 
-            } else {
-                nBestAttract = 0; 
-                nBestAttract *= rand.nextDouble() * phi2; 
-            }
-            
-               //constrict the new velocity and reset the current velocity
-               double curVelocity = velocity.get(i); 
-               double newVelocity = (curVelocity + (nBestAttract + pBestAttract)) * constrictionFactor; 
-               velocity.set(i, newVelocity); 
-            
-               //update position
-               double curPosition= position.get(i);
-               double newPosition = newVelocity + curPosition; 
-               position.set(i, newPosition);
-                
-            }
-            
-              //find the value for this particle given the new position. 
-               double curValue = evalFunction(); 
-           
-               //update personal best
-               if (curValue < pbest) {
-                   pbest = curValue; 
-                   for (int i  = 0; i < position.size(); i ++) {
-                       pbestPosition.set(i, position.get(i));
-                   }
-               }
-            
-        }
-            
-            
-            /**
-          * This function is used to assign neighbors to each particle. 
-          * Depending on the topology, each particle will have a different set of neighbors and this function is called so that each particle 
-          * can store its list of neighbors and have it influence the way the velocity and position vector is updated. 
-          * 
-          * @param neighbor is a Particle that is this particle's neighbor and needs to be added to the list. 
-          */
-        public void assignN(Particle neighbor) {
-        neighbors.add(neighbor);
+        move(rand); 
+        if (commitPBest(evalFunction())) {
+            notifyNeighborhoods(); 
         }
+    }
     
-        /**
-         * This function is used only for global topology. It takes in the full list of 
-         * particles and assings them to the neighborhood since the neighborhood for the global topology is just all the other particles in the swarm. 
-         * 
-         * @param neighbors is the full list of particles in the swarm. 
-         */
-        public void assignNList(List<Particle> neighbors) {
-            for (int i = 0; i < neighbors.size(); i ++) {
-                this.neighbors.add(neighbors.get(i)); 
-            }
+    /**
+     * Updates this particle's velocity and position vector with its own random stream, without evaluating the function at the new position. 
+     */
+    public void move() {
+        move(rand); 
+    }
+    
+    /**
+     * Updates this particle's velocity and position vector with the swarm's update strategy, then applies the boundary policy, without evaluating the function at the new position. 
+     * In synchronous mode this is called from several threads at once, so the random stream of the calling thread is passed in. 
+     * 
+     * @param rand is the random stream used for the random coefficients. 
+     */
+    public void move(RandomStream rand) {
+        //the neighborhood best is cached by the neighborhood and cannot change while this particle moves, so it is looked up once
+        strategy.move(state, index, nbest.getTopology(), neighborhood, findNBest(), rand); 
+        boundary.apply(state, index, rand); 
+    }
+    
+    /**
+     * Updates the personal best value and position of this particle if the value found at the current position is better. 
+     * The neighborhoods are not told about the improvement, see notifyNeighborhoods(). 
+     * 
+     * @param curValue is the value of the function at the current position. 
+     * @return whether or not the personal best improved. 
+     */
+    public boolean commitPBest(double curValue) {
+        if (curValue < state.pbest[index]) {
+            state.pbest[index] = curValue;
+            System.arraycopy(state.position, offset, state.pbestPosition, offset, dimensions);
+            return true; 
         }
-            
-            
-            
-            
+        return false; 
+    }
+    
+    /**
+     * Lets every neighborhood containing this particle update its cached best after this particle's personal best improved. 
+     * This changes state shared with other particles, so in synchronous mode it is only called from a single thread. 
+     */
+    public void notifyNeighborhoods() {
+        nbest.offer(index); 
+    }
+ 
+ 
         /**
              * Method that returns the best solution found within the particle's neighborhood. 
              * 
              * @return the neighborhood best value. 
              */
             public double findNBestValue() {
-                return findNBest().getPBest(); 
+                return state.pbest[nbest.best(neighborhood)]; 
             }
-            
-            
+ 
+ 
             /**
-             * Helper method that iterates through the list of neighbors to find the neighbor with the best personal best solution. 
+             * Helper method that returns the neighbor with the best personal best solution. 
+             * The neighborhood keeps this cached and updates it whenever a member's personal best improves, so no scan of the neighbors is needed. 
              * 
-             * @return the particle that is the neighborhood best (has the best personal best solution within the neighborhood). 
+             * @return the index of the particle that is the neighborhood best (has the best personal best solution within the neighborhood). 
              */
-            public Particle findNBest() {
-                
-                double nBest = Double.MAX_VALUE; 
-                Particle nBestParticle = neighbors.get(0); 
-                for (int i = 0; i < neighbors.size(); i ++) {
-                    if (neighbors.get(i).getPBest() < nBest) {
-                        nBestParticle = neighbors.get(i); 
-                        nBest = neighbors.get(i).getPBest(); 
-                    }
-                }
-                
-                return nBestParticle; 
-
+            public int findNBest() {
+                return nbest.best(neighborhood); 
             }
-             
+ 
             /**
              * Getter method for the particle's personal best. 
              * @return the value of the personal best solution. 
              */
             public double getPBest() {
-                return pbest; 
+                return state.pbest[index];
             }
-            
+ 
             /**
              * Getter method for the position at which the particle found its personal best solution. 
              * 
@@ -216,10 +170,38 @@ public class Particle {
              * @return double the value in the position vector at specified dimension. 
              */
             public double getPBestPosition(int dimension) {
-                return pbestPosition.get(dimension); 
+                return state.pbestPosition[offset + dimension];
+            }
+ 
+            /**
+             * Getter method for the particle's current position.
+             * 
+             * @param dimension is the dimension for which the value is returned.
+             * @return double the value in the position vector at specified dimension. 
+             */
+            public double getPosition(int dimension) {
+                return state.position[offset + dimension];
+            }
+ 
+            /**
+             * Getter method for the particle's current velocity.
+             * 
+             * @param dimension is the dimension for which the value is returned.
+             * @return double the value in the velocity vector at specified dimension.
+             */
+            public double getVelocity(int dimension) {
+                return state.velocity[offset + dimension];
             }
-            
-            
+ 
+            /**
+             * Getter method for the index of this particle in the swarm.
+             * @return the index of the particle, which is also its slot in the state arrays.
+             */
+            public int getIndex() {
+                return index;
+            }
+ 
+ 
              /**
              * This is a contians method. Given a particle, it checks if the particle already exists within the neighborhood list. 
              * 
@@ -227,84 +209,16 @@ public class Particle {
              * @return whether or not the particle in the parameter is already a neighbor. 
              */
             public boolean nContains(Particle particle) {
-                return neighbors.contains(particle); 
+                return nbest.getTopology().contains(neighborhood, particle.getIndex()); 
             }
-            
+ 
             /**
-             * Calls on the the function that needs to be evaluated based on user-specified input. 
+             * Evaluates the function at this particle's current position. 
+             * This is the path used by update(). The swarm evaluates through its BatchEvaluator, whose default implementation makes the same call. 
              *
+             * @return the value of the solution found by this particle
              */
-               public double evalFunction() {
-                double retValue = 0.0;
-             
-                if (function.equals("rok")) {
-                  retValue = evalRosenbrock(); 
-                }  
-                else if (function.equals("ras")){
-                  retValue = evalRastrigin(); 
-                }  
-                else if (function.equals("ack")) {
-                  retValue = evalAckley();
-                }
-            
-                return retValue;
+            public double evalFunction() {
+                return function.evaluate(state.position, offset, dimensions); 
             }
-
-            
-            
-            /**
-     * Evaluates the Rosenbrock function in the 30 dimensional space. 
-     * 
-     * @return the value of the solution found by this particle
-     */
-    public double evalRosenbrock () {
-          
-          double retVal = 0; 
-           
-        for(int i= 0 ; i < (dimensions - 1) ; i++) {
-            double xi = position.get(i);
-            double xiPlusOne = position.get(i+1);
-           
-            retVal += 100.0 * Math.pow(xiPlusOne - (xi*xi), 2.0) + Math.pow(xi-1.0, 2.0);
-        }
-          return retVal; 
-
-        }
-
-        /**
-         * Evaluates the Rastrigin function in the 30 dimensional space. 
-         * 
-         * @return the value of the solution found by this particle
-         */
-    public double evalRastrigin () {
-           double retVal = 0;
-
-            for(int i = 0 ; i < dimensions; i++) {
-                double xi = position.get(i);
-                retVal += xi*xi - 10.0*Math.cos(2.0*Math.PI*xi) + 10.0;
-            }
-
-           return retVal;  
-        }
-
-        
-        /**
-         * Evaluates the Ackley function in the 30 dimensional space. 
-         * 
-         * @return the value of the solution found by this particle. 
-         */
-     public double evalAckley () {
-
-           double firstSum = 0.0;
-           double secondSum = 0.0;
-          
-           for(int i = 0 ; i < dimensions ; i++) {
-                  double xi = position.get(i);
-                  firstSum += xi * xi; 
-                  secondSum += Math.cos(2.0*Math.PI*xi);
-               }
-           return -20.0 * Math.exp(-0.2 * Math.sqrt(firstSum/dimensions)) - 
-                  Math.exp(secondSum/dimensions) + 20.0 + Math.E;   
-
-        }
-    }
\ No newline at end of file
+    }
\ No newline at end of file
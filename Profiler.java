@@ -0,0 +1,215 @@
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Profiler class that counts the work done by a swarm and times the phases of its iterations, to show where the time of a run goes:
+ * moving the particles, evaluating the function, keeping the personal and neighborhood bests up to date, or rewiring the topology.
+ * The counters are striped LongAdders, so the JVM-wide total stays cheap to update while many swarms of an Experiment finish at once.
+ * The durations of each phase in every iteration go into a LogHistogram.
+ *
+ * Profiling is switched on with -Dpso.profile=true. Every call site checks ENABLED first, and since it is a static final field the JIT
+ * treats it as a constant and removes the profiling code completely when it is off, so the flag can stay in the code of production experiments.
+ * When it is on, each swarm prints a summary of its run to System.err when the run stops, and adds its run to the total,
+ * which is registered with the platform MBean server as pso:type=Profiler. The counters of the total include the runs that are still going on,
+ * so a single long run can be watched in JConsole, while the phase times are added when a run stops.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class Profiler implements ProfilerMBean {
+
+    //whether profiling is on, read once when the class is loaded
+    public static final boolean ENABLED = Boolean.getBoolean("pso.profile");
+
+    /**
+     * The phases of an iteration that are timed. ITERATION is the whole iteration, including the work between the other phases.
+     */
+    public enum Phase {
+        //the velocity and position updates
+        MOVE,
+
+        //the evaluation of the function at the new positions
+        EVALUATE,
+
+        //the personal best commits and the neighborhood best updates
+        BEST,
+
+        //the changes to the topology of a dynamic topology
+        REWIRE,
+
+        //the whole iteration
+        ITERATION
+    }
+
+    //the runs of all swarms in this JVM, created when it is first used
+    private static Profiler total;
+
+    //the number of runs, function evaluations, comparisons of the neighborhood best updates and personal best improvements
+    final LongAdder runs = new LongAdder();
+    final LongAdder evaluations = new LongAdder();
+    final LongAdder neighborComparisons = new LongAdder();
+    final LongAdder pbestImprovements = new LongAdder();
+
+    //the profilers of the runs going on, whose counters are included until they are merged
+    private final Set<Profiler> running = ConcurrentHashMap.newKeySet();
+
+    //the time spent in each phase per iteration
+    private final LogHistogram[] phases = new LogHistogram[Phase.values().length];
+
+    /**
+     * Constructor for an empty profiler.
+     */
+    public Profiler() {
+        for (int p = 0; p < phases.length; p++) {
+            phases[p] = new LogHistogram();
+        }
+    }
+
+    /**
+     * Returns the profiler that holds the runs of all swarms in this JVM, and registers it with the platform MBean server the first time.
+     * If it cannot be registered, the total is still kept and the reason is printed to System.err.
+     *
+     * @return the JVM-wide total.
+     */
+    public static synchronized Profiler total() {
+        if (total == null) {
+            total = new Profiler();
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(total, new ObjectName("pso:type=Profiler"));
+            } catch (JMException e) {
+                System.err.println("The profiler could not be registered with JMX: " + e);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Adds the time spent in a phase of one iteration. Only called by the thread that runs the swarm.
+     *
+     * @param phase is the phase.
+     * @param nanos is the time spent in it, in nanoseconds.
+     */
+    void record(Phase phase, long nanos) {
+        phases[phase.ordinal()].record(nanos);
+    }
+
+    /**
+     * Includes the counters of a run that has started in the counters of this profiler while it runs, until the run is merged.
+     *
+     * @param run is the profiler of a swarm whose run has started or resumed.
+     */
+    public void begin(Profiler run) {
+        running.add(run);
+    }
+
+    /**
+     * Adds the counters and histograms of a run to this profiler.
+     *
+     * @param run is the profiler of a swarm whose run has stopped.
+     */
+    public synchronized void merge(Profiler run) {
+        running.remove(run);
+        runs.add(run.runs.sum());
+        evaluations.add(run.evaluations.sum());
+        neighborComparisons.add(run.neighborComparisons.sum());
+        pbestImprovements.add(run.pbestImprovements.sum());
+        for (int p = 0; p < phases.length; p++) {
+            phases[p].merge(run.phases[p]);
+        }
+    }
+
+    /**
+     * Sets every counter and histogram back to 0.
+     */
+    public synchronized void reset() {
+        running.clear();
+        runs.reset();
+        evaluations.reset();
+        neighborComparisons.reset();
+        pbestImprovements.reset();
+        for (LogHistogram phase : phases) {
+            phase.reset();
+        }
+    }
+
+    /**
+     * Getter method for the histogram of a phase. The histogram changes while the swarm runs.
+     *
+     * @param phase is the phase.
+     * @return the time spent in the phase in every iteration.
+     */
+    public LogHistogram getPhase(Phase phase) {
+        return phases[phase.ordinal()];
+    }
+
+    /**
+     * Getter method for the number of runs.
+     * @return the number of runs counted by this profiler, including the runs going on.
+     */
+    public synchronized long getRuns() {
+        return sum(profiler -> profiler.runs);
+    }
+
+    /**
+     * Getter method for the number of function evaluations.
+     * @return the number of function evaluations.
+     */
+    public synchronized long getEvaluations() {
+        return sum(profiler -> profiler.evaluations);
+    }
+
+    /**
+     * Getter method for the number of neighbor comparisons.
+     * @return the number of comparisons made to keep the neighborhood bests up to date.
+     */
+    public synchronized long getNeighborComparisons() {
+        return sum(profiler -> profiler.neighborComparisons);
+    }
+
+    /**
+     * Getter method for the number of personal best improvements.
+     * @return the number of times a personal best improved.
+     */
+    public synchronized long getPbestImprovements() {
+        return sum(profiler -> profiler.pbestImprovements);
+    }
+
+    /**
+     * Adds up a counter of this profiler and of the runs going on.
+     *
+     * @param counter picks the counter from a profiler.
+     * @return the sum of the counter.
+     */
+    private long sum(Function<Profiler, LongAdder> counter) {
+        long sum = counter.apply(this).sum();
+        for (Profiler run : running) {
+            sum += counter.apply(run).sum();
+        }
+        return sum;
+    }
+
+    /**
+     * Describes the counters and, for every phase, the total time and the mean, median, 99th percentile and largest time per iteration in microseconds.
+     *
+     * @return the summary, one line for the counters and one line per phase.
+     */
+    public synchronized String getSummary() {
+        StringBuilder summary = new StringBuilder();
+        summary.append(getEvaluations()).append(" evaluations, ").append(getNeighborComparisons()).append(" neighbor comparisons, ")
+                .append(getPbestImprovements()).append(" pbest improvements");
+        for (Phase phase : Phase.values()) {
+            LogHistogram histogram = phases[phase.ordinal()];
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            summary.append(System.lineSeparator()).append(String.format("  %-9s total %10.1f ms  mean %9.2f us  p50 %9.2f us  p99 %9.2f us  max %9.2f us",
+                    phase.name().toLowerCase(), histogram.getSum() / 1e6, histogram.getMean() / 1e3,
+                    histogram.percentile(0.5) / 1e3, histogram.percentile(0.99) / 1e3, histogram.getMax() / 1e3));
+        }
+        return summary.toString();
+    }
+}
@@ -0,0 +1,37 @@
+/**
+ * Management interface of the JVM-wide Profiler total, registered as pso:type=Profiler so the counters can be read with JConsole or any other JMX client while experiments run.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public interface ProfilerMBean {
+
+    /**
+     * @return the number of runs, including the runs going on.
+     */
+    long getRuns();
+
+    /**
+     * @return the number of function evaluations.
+     */
+    long getEvaluations();
+
+    /**
+     * @return the number of comparisons made to keep the neighborhood bests up to date.
+     */
+    long getNeighborComparisons();
+
+    /**
+     * @return the number of times a personal best improved.
+     */
+    long getPbestImprovements();
+
+    /**
+     * @return the counters and the time spent in each phase of an iteration, as printed at the end of a run.
+     */
+    String getSummary();
+
+    /**
+     * Sets every counter and histogram back to 0.
+     */
+    void reset();
+}
@@ -0,0 +1,359 @@
+import java.util.Arrays;
+
+/**
+ * Mergeable sketch of a distribution of non-negative values, such as the best solutions of many runs, for quantiles and rank tests in constant memory.
+ * Positive values are counted in logarithmic buckets, where bucket i holds the values in (gamma^(i-1), gamma^i], so every quantile is found
+ * to within the relative accuracy the sketch was created with (the idea of DDSketch). Values at or below 0 share one bucket, as do values too small to have a bucket.
+ * There is a fixed number of buckets, which follow the values up and down: only if the values spread over more buckets than there are (about 17 orders
+ * of magnitude) are the largest buckets folded into one, which only loses accuracy for the worst solutions. Two sketches with the same accuracy can be merged, which gives the sketch of all their values.
+ * As long as a sketch has at most 1024 values it also keeps the values themselves, and quantiles and rank tests use them instead of the buckets,
+ * since the best solutions of a grid cell often lie within 1% of each other (for example on the plateau of Ackley) and would all fall into one bucket.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class QuantileSketch {
+
+    //the number of buckets for positive values. With 1% accuracy they cover about 17 orders of magnitude before any are folded.
+    private static final int BUCKETS = 2048;
+
+    //the most values kept exactly
+    private static final int EXACT = 1024;
+
+    //values smaller than this are counted with the zeros
+    private static final double MIN_VALUE = 1e-300;
+
+    //the relative accuracy, and gamma = (1 + accuracy) / (1 - accuracy) with its logarithm
+    private final double accuracy;
+    private final double gamma;
+    private final double logGamma;
+
+    //the bucket counts. counts[b] is the count of bucket offset + b, and the last bucket also holds every larger value once buckets were folded.
+    private final long[] counts = new long[BUCKETS];
+    private int offset;
+    private boolean empty = true;
+    private boolean folded;
+
+    //the number of values at or below 0 (or below MIN_VALUE), the number of all values, and the smallest and largest value
+    private long zeros;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    //the values themselves, while there are at most EXACT of them, or null after that
+    private double[] exact = new double[16];
+
+    /**
+     * Constructor for a sketch with 1% relative accuracy.
+     */
+    public QuantileSketch() {
+        this(0.01);
+    }
+
+    /**
+     * Constructor for a sketch.
+     *
+     * @param accuracy is the relative accuracy of the quantiles, between 0 and 1.
+     * @throws IllegalArgumentException if the accuracy is not between 0 and 1.
+     */
+    public QuantileSketch(double accuracy) {
+        if (!(accuracy > 0 && accuracy < 1)) {
+            throw new IllegalArgumentException("The accuracy must be between 0 and 1 but is " + accuracy);
+        }
+        this.accuracy = accuracy;
+        gamma = (1 + accuracy) / (1 - accuracy);
+        logGamma = Math.log(gamma);
+    }
+
+    /**
+     * Adds a value to the sketch. NaN is ignored.
+     *
+     * @param value is the value.
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (exact != null && count < EXACT) {
+            if (count == exact.length) {
+                exact = Arrays.copyOf(exact, exact.length * 2);
+            }
+            exact[(int) count] = value;
+        } else {
+            exact = null;
+        }
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        if (value < MIN_VALUE) {
+            zeros++;
+            return;
+        }
+        //an infinite value goes into the bucket of the largest double, so the bucket indices stay small
+        addToBucket((int) Math.ceil(Math.log(Math.min(value, Double.MAX_VALUE)) / logGamma), 1);
+    }
+
+    /**
+     * Adds to the count of a bucket, moving the window of buckets if the bucket is outside it,
+     * and folding the largest buckets only if the values spread over more buckets than the window has.
+     *
+     * @param index is the index of the bucket.
+     * @param times is how much is added to its count.
+     */
+    private void addToBucket(int index, long times) {
+        if (empty) {
+            //the first value is placed near the top of the window, since most values of a minimisation come below the first ones
+            offset = index - BUCKETS * 3 / 4;
+            empty = false;
+        }
+        if (index < offset) {
+            shift(offset - index);
+        }
+        if (index >= offset + BUCKETS) {
+            //moves the window up over its empty lowest buckets, as far as the bucket needs
+            int lowest = 0;
+            while (lowest < BUCKETS && counts[lowest] == 0) {
+                lowest++;
+            }
+            shiftUp(Math.min(index - (offset + BUCKETS - 1), lowest));
+        }
+        if (index >= offset + BUCKETS) {
+            index = offset + BUCKETS - 1;
+            folded = true;
+        }
+        counts[index - offset] += times;
+    }
+
+    /**
+     * Moves the window of buckets up over buckets that are empty.
+     *
+     * @param by is the number of buckets the window moves, at most the number of empty buckets at the bottom of the window.
+     */
+    private void shiftUp(int by) {
+        if (by >= BUCKETS) {
+            Arrays.fill(counts, 0);
+        } else {
+            System.arraycopy(counts, by, counts, 0, BUCKETS - by);
+            Arrays.fill(counts, BUCKETS - by, BUCKETS, 0);
+        }
+        offset += by;
+    }
+
+    /**
+     * Moves the window of buckets down, folding the buckets that fall out at the top into the last bucket.
+     *
+     * @param by is the number of buckets the window moves.
+     */
+    private void shift(int by) {
+        if (by >= BUCKETS) {
+            long all = 0;
+            for (int b = 0; b < BUCKETS; b++) {
+                all += counts[b];
+                counts[b] = 0;
+            }
+            counts[BUCKETS - 1] = all;
+            folded |= all > 0;
+        } else {
+            long top = 0;
+            for (int b = BUCKETS - by; b < BUCKETS; b++) {
+                top += counts[b];
+            }
+            System.arraycopy(counts, 0, counts, by, BUCKETS - by);
+            counts[BUCKETS - 1] += top;
+            Arrays.fill(counts, 0, by, 0);
+            folded |= top > 0;
+        }
+        offset -= by;
+    }
+
+    /**
+     * Adds all values of another sketch to this one.
+     *
+     * @param other is a sketch with the same accuracy.
+     * @throws IllegalArgumentException if the accuracies differ.
+     */
+    public void merge(QuantileSketch other) {
+        if (other.accuracy != accuracy) {
+            throw new IllegalArgumentException("Sketches with accuracies " + accuracy + " and " + other.accuracy + " cannot be merged");
+        }
+        if (exact != null && other.exact != null && count + other.count <= EXACT) {
+            exact = Arrays.copyOf(exact, Math.max(exact.length, (int) (count + other.count)));
+            System.arraycopy(other.exact, 0, exact, (int) count, (int) other.count);
+        } else {
+            exact = null;
+        }
+        zeros += other.zeros;
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        folded |= other.folded;
+        for (int b = 0; b < BUCKETS; b++) {
+            if (other.counts[b] > 0) {
+                addToBucket(other.offset + b, other.counts[b]);
+            }
+        }
+    }
+
+    /**
+     * Finds the value below which the given fraction of the values lie.
+     *
+     * @param quantile is the fraction, for example 0.5 for the median.
+     * @return the quantile within the relative accuracy of the sketch, or NaN if the sketch is empty. Values in the bucket of the zeros are reported as 0.
+     */
+    public double quantile(double quantile) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        if (exact != null) {
+            double[] sorted = Arrays.copyOf(exact, (int) count);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.min(rank, count) - 1];
+        }
+        if (rank <= zeros) {
+            return Math.max(min, Math.min(max, 0));
+        }
+        long seen = zeros;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += counts[b];
+            if (seen >= rank) {
+                //the value in the middle of the bucket in relative terms, kept within the values that were seen
+                return Math.max(min, Math.min(max, value(offset + b)));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns the value a bucket stands for, which is within the relative accuracy of every value in it.
+     *
+     * @param index is the index of the bucket.
+     * @return 2 * gamma^index / (gamma + 1).
+     */
+    private double value(int index) {
+        return 2 * Math.exp(index * logGamma) / (gamma + 1);
+    }
+
+    /**
+     * Counts the values of this sketch that are smaller than, and equal to, the values of another, for rank tests.
+     * Unless both sketches still have their values, values in the same bucket count as equal.
+     *
+     * @param other is a sketch with the same accuracy.
+     * @return the number of pairs (x from this sketch, y from the other) with x below y, plus half the number of equal pairs.
+     */
+    double pairsBelow(QuantileSketch other) {
+        if (exact != null && other.exact != null) {
+            double below = 0;
+            for (int i = 0; i < count; i++) {
+                for (int j = 0; j < other.count; j++) {
+                    below += exact[i] < other.exact[j] ? 1 : exact[i] == other.exact[j] ? 0.5 : 0;
+                }
+            }
+            return below;
+        }
+
+        //walks both sketches from the smallest bucket up, the zeros of each being the lowest bucket
+        double below = 0;
+        long otherAbove = other.count - other.zeros;
+        below += zeros * (double) otherAbove + 0.5 * zeros * (double) other.zeros;
+        int from = Math.min(offset, other.offset);
+        int to = Math.max(offset, other.offset) + BUCKETS;
+        for (int index = from; index < to; index++) {
+            long x = bucketCount(index);
+            long y = other.bucketCount(index);
+            otherAbove -= y;
+            below += x * (double) otherAbove + 0.5 * x * (double) y;
+        }
+        return below;
+    }
+
+    /**
+     * Returns the count of a bucket by its index, 0 for buckets outside the window.
+     *
+     * @param index is the index of the bucket.
+     * @return the count.
+     */
+    private long bucketCount(int index) {
+        int b = index - offset;
+        return b >= 0 && b < BUCKETS ? counts[b] : 0;
+    }
+
+    /**
+     * Adds up t^3 - t over the groups of equal values, which the variance of a rank test is corrected for.
+     * Unless both sketches still have their values, values in the same bucket count as equal.
+     *
+     * @param other is the other sketch of the test, whose values are pooled with the values of this one.
+     * @return the sum over the groups of equal values in the pooled sketches of t^3 - t, where t is the size of the group.
+     */
+    double tieCorrection(QuantileSketch other) {
+        if (exact != null && other.exact != null) {
+            double[] pooled = new double[(int) (count + other.count)];
+            System.arraycopy(exact, 0, pooled, 0, (int) count);
+            System.arraycopy(other.exact, 0, pooled, (int) count, (int) other.count);
+            Arrays.sort(pooled);
+            double sum = 0;
+            for (int from = 0, to; from < pooled.length; from = to) {
+                for (to = from + 1; to < pooled.length && pooled[to] == pooled[from]; to++) {
+                    //finds the end of the group of values equal to pooled[from]
+                }
+                sum += cube(to - from);
+            }
+            return sum;
+        }
+
+        double sum = cube(zeros + other.zeros);
+        int from = Math.min(offset, other.offset);
+        int to = Math.max(offset, other.offset) + BUCKETS;
+        for (int index = from; index < to; index++) {
+            sum += cube(bucketCount(index) + other.bucketCount(index));
+        }
+        return sum;
+    }
+
+    /**
+     * @param t is the size of a group of ties.
+     * @return t^3 - t.
+     */
+    private static double cube(long t) {
+        return (double) t * t * t - t;
+    }
+
+    /**
+     * Getter method for the number of values.
+     * @return the number of values added.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Getter method for the smallest value.
+     * @return the smallest value added, or NaN if the sketch is empty.
+     */
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    /**
+     * Getter method for the largest value.
+     * @return the largest value added, or NaN if the sketch is empty.
+     */
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * Getter method for whether the values are kept.
+     * @return whether the sketch still has all its values, so its quantiles and rank tests are exact.
+     */
+    public boolean isExact() {
+        return exact != null;
+    }
+
+    /**
+     * Getter method for whether buckets were folded.
+     * @return whether the values spread over more buckets than the sketch has, so the largest quantiles are less accurate.
+     */
+    public boolean isFolded() {
+        return folded;
+    }
+}
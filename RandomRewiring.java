@@ -0,0 +1,84 @@
+import java.nio.ByteBuffer;
+import java.util.random.RandomGenerator;
+
+/**
+ * Dynamic random topology. Every period iterations, each neighborhood is recreated with the given probability by choosing the same number of
+ * other particles again, randomly and without repetition. The new members are written over the old ones, so rewiring does not allocate.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class RandomRewiring implements TopologyRewiring {
+
+    //the number of iterations between two rewirings
+    private final int period;
+
+    //the probability that a neighborhood is recreated in a rewiring
+    private final double probability;
+
+    //chooses the new neighbors, created the first time the swarm is rewired
+    private NeighborSampler sampler;
+
+    /**
+     * Constructor for the rewiring.
+     *
+     * @param period is the number of iterations between two rewirings, 1 to rewire after every iteration.
+     * @param probability is the probability that a neighborhood is recreated in a rewiring.
+     */
+    public RandomRewiring(int period, double probability) {
+        this.period = Math.max(1, period);
+        this.probability = probability;
+    }
+
+    public void rewire(int iteration, Topology topology, NeighborhoodBest nbest, SwarmState state, RandomGenerator rand) {
+        if (iteration % period != 0) {
+            return;
+        }
+        if (sampler == null) {
+            sampler = new NeighborSampler(topology.size);
+        }
+
+        boolean changed = false;
+        for (int n = 0; n < topology.getNeighborhoods(); n++) {
+            if (rand.nextDouble() >= probability) {
+                continue;
+            }
+            //the first member is the particle the neighborhood belongs to and stays, the others are chosen again
+            int start = topology.offsets[n];
+            sampler.sample(topology.indices[start], topology.degree(n) - 1, rand, topology.indices, start + 1);
+            nbest.rescan(n);
+            changed = true;
+        }
+        if (changed) {
+            topology.buildMemberships();
+        }
+    }
+
+    public void reset() {
+        if (sampler != null) {
+            sampler.reset();
+        }
+    }
+
+    public int stateBytes() {
+        return 1 + (sampler == null ? 0 : sampler.stateBytes());
+    }
+
+    public void saveState(ByteBuffer out) {
+        out.put((byte) (sampler == null ? 0 : 1));
+        if (sampler != null) {
+            sampler.save(out);
+        }
+    }
+
+    public void restoreState(ByteBuffer in) {
+        if (in.get() == 0) {
+            sampler = null;
+            return;
+        }
+        if (sampler == null) {
+            //the size of the swarm is the length of the saved permutation, which is the rest of the state
+            sampler = new NeighborSampler(in.remaining() / Integer.BYTES);
+        }
+        sampler.restore(in);
+    }
+}
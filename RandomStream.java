@@ -0,0 +1,153 @@
+import java.nio.ByteBuffer;
+import java.util.random.RandomGenerator;
+
+/**
+ * RandomStream class, a seedable and splittable random number generator. It is the SplitMix64 algorithm of java.util.SplittableRandom,
+ * whose state is two longs that can be saved in a checkpoint and restored. split() returns a new stream that is statistically independent of this one,
+ * so the swarm splits one stream per particle, per thread and per other use from a single master seed, and a run can be repeated from that seed alone.
+ * A stream is not thread-safe and is never shared between threads, which is what makes it cheap: there is no atomic update like in java.util.Random.
+ * Each stream keeps a buffer for bulk draws, so a particle can draw all its random coefficients of an iteration at once without allocating.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class RandomStream implements RandomGenerator {
+
+    //the number of bytes saved for the state of a stream
+    static final int STATE_BYTES = 2 * Long.BYTES;
+
+    //the gamma of a stream created from a seed, the odd integer closest to 2^64 divided by the golden ratio
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    //the state, which is advanced by gamma for every draw. Every stream has its own odd gamma.
+    private long seed;
+    private long gamma;
+
+    //reused for bulk draws
+    private double[] buffer = new double[0];
+
+    /**
+     * Constructor for a stream from a seed.
+     *
+     * @param seed is the seed, the same seed always gives the same numbers.
+     */
+    public RandomStream(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    private RandomStream(long seed, long gamma) {
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+    public long nextLong() {
+        return mix64(seed += gamma);
+    }
+
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Fills part of an array with uniform numbers between 0 (inclusive) and 1 (exclusive).
+     *
+     * @param out is the array.
+     * @param from is the first index filled.
+     * @param to is the index after the last one filled.
+     */
+    public void nextDoubles(double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = (mix64(seed += gamma) >>> 11) * 0x1.0p-53;
+        }
+    }
+
+    /**
+     * Draws a number of uniform numbers between 0 (inclusive) and 1 (exclusive) into the stream's own buffer.
+     * The buffer is overwritten by the next call, so the numbers have to be used before then.
+     *
+     * @param count is the number of numbers drawn.
+     * @return the buffer, whose first count entries are the numbers.
+     */
+    public double[] uniforms(int count) {
+        if (buffer.length < count) {
+            buffer = new double[count];
+        }
+        nextDoubles(buffer, 0, count);
+        return buffer;
+    }
+
+    /**
+     * Creates a new stream that is independent of this one, and advances this stream.
+     *
+     * @return the new stream.
+     */
+    public RandomStream split() {
+        RandomStream stream = new RandomStream(0, GOLDEN_GAMMA);
+        splitInto(stream);
+        return stream;
+    }
+
+    /**
+     * Makes an existing stream continue like a stream returned by split(), so a swarm can be reset without creating new streams.
+     *
+     * @param stream is the stream whose state is replaced.
+     */
+    void splitInto(RandomStream stream) {
+        stream.seed = nextLong();
+        stream.gamma = mixGamma(seed += gamma);
+    }
+
+    /**
+     * Makes this stream continue like a new stream created from the given seed.
+     *
+     * @param seed is the seed.
+     */
+    void reset(long seed) {
+        this.seed = seed;
+        this.gamma = GOLDEN_GAMMA;
+    }
+
+    /**
+     * Writes the state of the stream to a checkpoint.
+     *
+     * @param out is the buffer the state is written to.
+     */
+    void save(ByteBuffer out) {
+        out.putLong(seed).putLong(gamma);
+    }
+
+    /**
+     * Reads the state written by save, so the stream continues where the saved one was.
+     *
+     * @param in is the buffer the state is read from.
+     */
+    void restore(ByteBuffer in) {
+        seed = in.getLong();
+        gamma = in.getLong();
+    }
+
+    /**
+     * The output function of SplitMix64, which turns consecutive states into well mixed numbers.
+     *
+     * @param z is the state.
+     * @return the mixed number.
+     */
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Turns a number into the gamma of a new stream. The gamma is odd, and is changed if too few of its neighboring bits differ, since such gammas give poor streams.
+     *
+     * @param z is the number.
+     * @return the gamma.
+     */
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int transitions = Long.bitCount(z ^ (z >>> 1));
+        return transitions < 24 ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
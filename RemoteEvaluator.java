@@ -0,0 +1,347 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.List;
+
+/**
+ * Evaluator that sends the positions of the swarm to EvaluationWorker processes over sockets and collects the values, so a slow function
+ * can be evaluated by several JVMs or hosts at once. A batch is split into chunks of particles, and every worker gets several chunks at a time,
+ * so while one chunk is being evaluated the next is already on its way and the results of earlier ones are coming back.
+ * All workers are served by one thread with a non-blocking Selector.
+ * If a worker disconnects, sends something unexpected or does not answer within the timeout, its chunks are sent to the other workers,
+ * and it is reconnected at the start of a later batch. If no worker is left, the batch is evaluated locally.
+ *
+ * The protocol is binary and big-endian. After connecting, the coordinator sends the magic number PSOE, the protocol version and the name
+ * of the function (as written by DataOutputStream.writeUTF), and the worker answers with the magic number and 0 if it can evaluate the function.
+ * Then each request is an id, the number of particles and the number of dimensions followed by the positions, and each response is the id
+ * and the number of particles followed by the values. A worker answers the requests of a connection in the order they were sent.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class RemoteEvaluator implements BatchEvaluator, AutoCloseable {
+
+    //the first bytes of the handshake, "PSOE"
+    static final int MAGIC = 0x50534F45;
+
+    //the version of the protocol
+    static final int VERSION = 1;
+
+    //the name of the function, sent to the workers
+    private final String function;
+
+    //evaluates on this machine when no worker is left
+    private final FunctionEvaluator local;
+
+    private final Worker[] workers;
+
+    //the largest number of particles in a request, and the number of requests a worker may have at once
+    private final int chunkSize;
+    private final int window;
+
+    //how long a worker may take to answer before it is given up on
+    private final long timeoutMillis;
+
+    private final Selector selector;
+
+    //the chunks of the current batch that have not been sent yet, each is {first particle, one past the last particle, request id}
+    private final ArrayDeque<int[]> pending = new ArrayDeque<int[]>();
+    private int nextId;
+
+    //the number of times a worker failed
+    private long failures;
+
+    /**
+     * Constructor for the evaluator, which connects to the workers.
+     *
+     * @param function is the short name or class name of the function, as for ObjectiveFunction.forName().
+     * @param addresses are the addresses of the workers.
+     * @param chunkSize is the largest number of particles sent in one request.
+     * @param window is the number of requests a worker may have at once.
+     * @param timeoutMillis is how long connecting to a worker or waiting for its answer may take before it is given up on.
+     * @throws IOException if no worker can be reached.
+     */
+    public RemoteEvaluator(String function, List<InetSocketAddress> addresses, int chunkSize, int window, long timeoutMillis) throws IOException {
+        this.function = function;
+        this.local = new FunctionEvaluator(ObjectiveFunction.forName(function));
+        this.chunkSize = Math.max(1, chunkSize);
+        this.window = Math.max(1, window);
+        this.timeoutMillis = timeoutMillis;
+        selector = Selector.open();
+
+        workers = new Worker[addresses.size()];
+        boolean connected = false;
+        for (int w = 0; w < workers.length; w++) {
+            workers[w] = new Worker(addresses.get(w));
+            connected |= connect(workers[w]);
+        }
+        if (!connected) {
+            close();
+            throw new IOException("No worker could be reached at " + addresses);
+        }
+    }
+
+    /**
+     * Evaluates the particles from (inclusive) to to (exclusive) on the workers.
+     *
+     * @param positions is the position matrix of the swarm.
+     * @param dimensions is the number of dimensions of each position.
+     * @param from is the first particle to evaluate.
+     * @param to is one past the last particle to evaluate.
+     * @param values receives the value of particle p at index p.
+     */
+    public void evaluate(double[] positions, int dimensions, int from, int to, double[] values) {
+        long now = System.currentTimeMillis();
+        for (Worker worker : workers) {
+            if (worker.channel == null && now >= worker.nextConnect) {
+                connect(worker);
+            }
+        }
+
+        pending.clear();
+        for (int start = from; start < to; start += chunkSize) {
+            pending.add(new int[] {start, Math.min(to, start + chunkSize), nextId++});
+        }
+        int remaining = pending.size();
+
+        try {
+            while (remaining > 0) {
+                boolean alive = false;
+                for (Worker worker : workers) {
+                    if (worker.channel == null) {
+                        continue;
+                    }
+                    alive = true;
+                    while (worker.inFlight.size() < window && !pending.isEmpty() && worker.channel != null) {
+                        send(worker, pending.poll(), positions, dimensions);
+                    }
+                }
+                if (!alive) {
+                    for (int[] chunk : pending) {
+                        local.evaluate(positions, dimensions, chunk[0], chunk[1], values);
+                    }
+                    pending.clear();
+                    return;
+                }
+
+                selector.select(timeoutMillis);
+                now = System.currentTimeMillis();
+                for (SelectionKey key : selector.selectedKeys()) {
+                    Worker worker = (Worker) key.attachment();
+                    try {
+                        if (key.isValid() && key.isWritable()) {
+                            flush(worker);
+                        }
+                        if (key.isValid() && key.isReadable()) {
+                            remaining -= receive(worker, values, now);
+                        }
+                    } catch (IOException e) {
+                        fail(worker, e.toString());
+                    }
+                }
+                selector.selectedKeys().clear();
+
+                for (Worker worker : workers) {
+                    if (worker.channel != null && !worker.inFlight.isEmpty() && now - worker.lastProgress > timeoutMillis) {
+                        fail(worker, "no answer within " + timeoutMillis + "ms");
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Connects to a worker and does the handshake. The handshake blocks with the timeout, after that the connection is non-blocking.
+     *
+     * @param worker is the worker.
+     * @return whether or not the worker was connected.
+     */
+    private boolean connect(Worker worker) {
+        SocketChannel channel = null;
+        try {
+            channel = SocketChannel.open();
+            channel.socket().connect(worker.address, (int) timeoutMillis);
+            channel.socket().setSoTimeout((int) timeoutMillis);
+            channel.socket().setTcpNoDelay(true);
+
+            DataOutputStream out = new DataOutputStream(channel.socket().getOutputStream());
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(function);
+            out.flush();
+            DataInputStream in = new DataInputStream(channel.socket().getInputStream());
+            if (in.readInt() != MAGIC || in.readInt() != 0) {
+                throw new IOException("Worker cannot evaluate " + function);
+            }
+
+            channel.configureBlocking(false);
+            worker.key = channel.register(selector, SelectionKey.OP_READ, worker);
+            worker.channel = channel;
+            return true;
+        } catch (IOException e) {
+            System.err.println("Cannot connect to worker " + worker.address + ": " + e);
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                }
+            }
+            worker.nextConnect = System.currentTimeMillis() + timeoutMillis;
+            return false;
+        }
+    }
+
+    /**
+     * Adds a request for a chunk to a worker's output buffer and writes as much of it as the socket takes.
+     *
+     * @param worker is the worker.
+     * @param chunk is the chunk.
+     * @param positions is the position matrix of the swarm.
+     * @param dimensions is the number of dimensions of each position.
+     */
+    private void send(Worker worker, int[] chunk, double[] positions, int dimensions) {
+        int count = chunk[1] - chunk[0];
+        int bytes = 3 * Integer.BYTES + count * dimensions * Double.BYTES;
+        if (worker.out.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(2 * worker.out.capacity(), worker.out.position() + bytes));
+            worker.out.flip();
+            larger.put(worker.out);
+            worker.out = larger;
+        }
+        worker.out.putInt(chunk[2]).putInt(count).putInt(dimensions);
+        worker.out.asDoubleBuffer().put(positions, chunk[0] * dimensions, count * dimensions);
+        worker.out.position(worker.out.position() + count * dimensions * Double.BYTES);
+
+        if (worker.inFlight.isEmpty()) {
+            worker.lastProgress = System.currentTimeMillis();
+        }
+        worker.inFlight.add(chunk);
+        try {
+            flush(worker);
+        } catch (IOException e) {
+            fail(worker, e.toString());
+        }
+    }
+
+    /**
+     * Writes as much of a worker's output buffer as the socket takes, and asks the selector to wait for the socket if anything is left.
+     *
+     * @param worker is the worker.
+     */
+    private void flush(Worker worker) throws IOException {
+        worker.out.flip();
+        worker.channel.write(worker.out);
+        boolean left = worker.out.hasRemaining();
+        worker.out.compact();
+        worker.key.interestOps(left ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+    }
+
+    /**
+     * Reads what a worker sent and copies the values of every complete response into the values array.
+     *
+     * @param worker is the worker.
+     * @param values receives the values.
+     * @param now is the current time in milliseconds.
+     * @return the number of chunks that were completed.
+     */
+    private int receive(Worker worker, double[] values, long now) throws IOException {
+        if (worker.channel.read(worker.in) < 0) {
+            throw new IOException("Connection closed");
+        }
+        worker.in.flip();
+        int done = 0;
+        while (worker.in.remaining() >= 2 * Integer.BYTES) {
+            int id = worker.in.getInt(worker.in.position());
+            int count = worker.in.getInt(worker.in.position() + Integer.BYTES);
+            if (worker.in.remaining() < 2 * Integer.BYTES + count * Double.BYTES) {
+                break;
+            }
+            int[] chunk = worker.inFlight.peek();
+            if (chunk == null || chunk[2] != id || chunk[1] - chunk[0] != count) {
+                throw new IOException("Unexpected response " + id);
+            }
+            worker.in.position(worker.in.position() + 2 * Integer.BYTES);
+            worker.in.asDoubleBuffer().get(values, chunk[0], count);
+            worker.in.position(worker.in.position() + count * Double.BYTES);
+            worker.inFlight.poll();
+            worker.lastProgress = now;
+            done++;
+        }
+        worker.in.compact();
+        return done;
+    }
+
+    /**
+     * Gives up on a worker: its chunks are sent to the other workers and it is reconnected at the start of a later batch.
+     *
+     * @param worker is the worker.
+     * @param reason is why the worker failed.
+     */
+    private void fail(Worker worker, String reason) {
+        if (worker.channel == null) {
+            return;
+        }
+        System.err.println("Worker " + worker.address + " failed (" + reason + "), " + worker.inFlight.size() + " requests are sent to other workers");
+        failures++;
+        pending.addAll(worker.inFlight);
+        worker.inFlight.clear();
+        worker.out.clear();
+        worker.in.clear();
+        worker.key.cancel();
+        try {
+            worker.channel.close();
+        } catch (IOException ignored) {
+        }
+        worker.channel = null;
+        worker.nextConnect = System.currentTimeMillis() + timeoutMillis;
+    }
+
+    /**
+     * Getter method for the number of worker failures.
+     * @return the number of times a worker failed or could not be reached after having been connected.
+     */
+    public long getFailures() {
+        return failures;
+    }
+
+    /**
+     * Closes the connections to all workers.
+     */
+    public void close() throws IOException {
+        for (Worker worker : workers) {
+            if (worker != null && worker.channel != null) {
+                worker.channel.close();
+                worker.channel = null;
+            }
+        }
+        selector.close();
+    }
+
+    /**
+     * The connection to one worker and the requests it has not answered yet, in the order they were sent.
+     */
+    private class Worker {
+        final InetSocketAddress address;
+        SocketChannel channel;
+        SelectionKey key;
+        ByteBuffer out = ByteBuffer.allocate(0);
+        ByteBuffer in = ByteBuffer.allocate(2 * Integer.BYTES + chunkSize * Double.BYTES);
+        final ArrayDeque<int[]> inFlight = new ArrayDeque<int[]>();
+
+        //when the last answer came, and when the worker may be reconnected after it failed
+        long lastProgress;
+        long nextConnect;
+
+        Worker(InetSocketAddress address) {
+            this.address = address;
+        }
+    }
+}
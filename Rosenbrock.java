@@ -0,0 +1,80 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * The Rosenbrock function. Its minimum of 0 is at (1, ..., 1), at the bottom of a long curved valley.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class Rosenbrock implements ObjectiveFunction {
+
+    /**
+     * Evaluates the Rosenbrock function.
+     *
+     * @param x is the array holding the position vector.
+     * @param offset is the index in x at which the position vector starts.
+     * @param dimensions is the number of dimensions of the position vector.
+     * @return the value of the function at the position.
+     */
+    public double evaluate(double[] x, int offset, int dimensions) {
+        double retVal = 0;
+
+        for (int i = offset; i < offset + dimensions - 1; i++) {
+            double xi = x[i];
+            double xiPlusOne = x[i+1];
+
+            retVal += 100.0 * Math.pow(xiPlusOne - (xi*xi), 2.0) + Math.pow(xi-1.0, 2.0);
+        }
+        return retVal;
+    }
+
+    public double getLowerBound() {
+        return -30.0;
+    }
+
+    public double getUpperBound() {
+        return 30.0;
+    }
+
+    public double getInitMin() {
+        return 15.0;
+    }
+
+    public double getInitMax() {
+        return 30.0;
+    }
+
+    public double getVelocityMin() {
+        return -2.0;
+    }
+
+    public double getVelocityMax() {
+        return 2.0;
+    }
+
+    /**
+     * Initialises a particle the way the original particle did, so results can be compared with experiments run before the functions were pluggable.
+     * Those expressions round to whole numbers and do not stay inside the init range: positions are whole numbers from 16 to 30, personal best positions from 1 to 30 and velocities from -1 to 2.
+     *
+     * @param position is the array holding the position vector.
+     * @param pbestPosition is the array holding the personal best position vector.
+     * @param velocity is the array holding the velocity vector.
+     * @param offset is the index at which the particle's vectors start.
+     * @param dimensions is the number of dimensions.
+     * @param rand is the random stream of the particle.
+     */
+    public void initialise(double[] position, double[] pbestPosition, double[] velocity, int offset, int dimensions, RandomGenerator rand) {
+        double min = getInitMin();
+        double max = getInitMax();
+        double velMin = getVelocityMin();
+        double velMax = getVelocityMax();
+        for (int i = offset; i < offset + dimensions; i++) {
+            position[i] = Math.floor(rand.nextDouble() * (max - min) + 1) + min;
+            pbestPosition[i] = Math.floor(rand.nextDouble() * max - min + 1) + min;
+            velocity[i] = Math.floor(rand.nextDouble() * (velMax - velMin) + 1) + velMin;
+        }
+    }
+
+    public double getOptimum() {
+        return 0.0;
+    }
+}
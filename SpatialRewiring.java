@@ -0,0 +1,91 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * Dynamic topology in which neighborhoods are clusters in the search space rather than fixed in advance. Every period iterations, the neighborhood
+ * of each particle becomes the particle itself and the k particles whose current positions are closest to it. This takes a pass over all pairs of
+ * particles, so the period should be large for big swarms. All buffers are made the first time it runs, so later rewirings do not allocate.
+ * It replaces the neighborhoods of whatever topology the swarm was created with, which must have one neighborhood per particle.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class SpatialRewiring implements TopologyRewiring {
+
+    //the number of iterations between two rewirings
+    private final int period;
+
+    //the number of other particles in each neighborhood
+    private final int k;
+
+    //the k closest particles found so far and their squared distances, sorted from closest to furthest
+    private int[] closest;
+    private double[] distances;
+
+    /**
+     * Constructor for the rewiring.
+     *
+     * @param period is the number of iterations between two rewirings.
+     * @param k is the number of other particles in each neighborhood.
+     * @throws IllegalArgumentException if k is less than 1.
+     */
+    public SpatialRewiring(int period, int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("A neighborhood needs at least 1 other particle but k is " + k);
+        }
+        this.period = Math.max(1, period);
+        this.k = k;
+    }
+
+    public void rewire(int iteration, Topology topology, NeighborhoodBest nbest, SwarmState state, RandomGenerator rand) {
+        if (iteration % period != 0) {
+            return;
+        }
+        int size = topology.size;
+        if (topology.getNeighborhoods() != size) {
+            throw new IllegalStateException("Spatial rewiring needs one neighborhood per particle");
+        }
+        int others = Math.min(k, size - 1);
+        if (closest == null) {
+            closest = new int[others];
+            distances = new double[others];
+            topology.ensureCapacity(size * (others + 1));
+        }
+
+        int dimensions = state.dimensions;
+        double[] position = state.position;
+        int[] indices = topology.indices;
+        for (int p = 0; p < size; p++) {
+            int found = 0;
+            for (int q = 0; q < size; q++) {
+                if (q == p) {
+                    continue;
+                }
+                double distance = 0;
+                for (int i = 0; i < dimensions; i++) {
+                    double d = position[p * dimensions + i] - position[q * dimensions + i];
+                    distance += d * d;
+                }
+
+                //insertion into the sorted list of the k closest particles
+                if (found < others || distance < distances[found - 1]) {
+                    int j = found < others ? found++ : found - 1;
+                    while (j > 0 && distances[j - 1] > distance) {
+                        distances[j] = distances[j - 1];
+                        closest[j] = closest[j - 1];
+                        j--;
+                    }
+                    distances[j] = distance;
+                    closest[j] = q;
+                }
+            }
+
+            int start = p * (others + 1);
+            topology.offsets[p] = start;
+            indices[start] = p;
+            System.arraycopy(closest, 0, indices, start + 1, others);
+        }
+        topology.offsets[size] = size * (others + 1);
+
+        topology.buildMemberships();
+        nbest.rebuild();
+    }
+}
@@ -0,0 +1,24 @@
+/**
+ * The reasons a run of the swarm can stop for, see StoppingCriteria.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public enum StopReason {
+    //the maximum number of iterations was run
+    MAX_ITERATIONS,
+
+    //the best solution reached the target value
+    TARGET_REACHED,
+
+    //the best solution did not improve for the given number of iterations
+    STAGNATION,
+
+    //the particles collapsed to within the given distance of the centre of the swarm
+    DIVERSITY_COLLAPSE,
+
+    //the maximum number of function evaluations was used
+    MAX_EVALUATIONS,
+
+    //the time limit ran out
+    TIME_LIMIT
+}
@@ -0,0 +1,129 @@
+/**
+ * StoppingCriteria class that decides when a run of the swarm stops. A run always stops after the maximum number of iterations (10000 unless changed),
+ * and can stop earlier when the target value is reached, when the best solution stagnates, when the diversity of the swarm collapses,
+ * when the maximum number of function evaluations is used up, or when the time limit runs out. Criteria that are not set are not checked.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class StoppingCriteria {
+
+    private int maxIterations = 10000;
+
+    //the run stops once the best solution is at or below this value
+    private double targetValue = Double.NEGATIVE_INFINITY;
+
+    //the run stops once the best solution has not improved for this many iterations
+    private int stagnationIterations = 0;
+
+    //the run stops once the mean distance of the particles to the centre of the swarm is below this value
+    private double minDiversity = 0;
+
+    private long maxEvaluations = 0;
+
+    private long timeLimitMillis = 0;
+
+    /**
+     * Checks the criteria after an iteration. They are checked in a fixed order, so if several are met at once the first one in that order is reported.
+     *
+     * @param iteration is the iteration that just finished.
+     * @param best is the best solution found so far.
+     * @param lastImprovement is the iteration in which the best solution last improved.
+     * @param evaluations is the number of function evaluations used so far.
+     * @param elapsedNanos is the time the run has taken so far.
+     * @param swarm is used to compute the diversity, which is only done if a minimum diversity is set.
+     * @return the criterion that is met, or null if the run should continue.
+     */
+    StopReason check(int iteration, double best, int lastImprovement, long evaluations, long elapsedNanos, Swarm swarm) {
+        if (best <= targetValue) {
+            return StopReason.TARGET_REACHED;
+        }
+        if (stagnationIterations > 0 && iteration - lastImprovement >= stagnationIterations) {
+            return StopReason.STAGNATION;
+        }
+        if (maxEvaluations > 0 && evaluations >= maxEvaluations) {
+            return StopReason.MAX_EVALUATIONS;
+        }
+        if (timeLimitMillis > 0 && elapsedNanos >= timeLimitMillis * 1000000L) {
+            return StopReason.TIME_LIMIT;
+        }
+        if (minDiversity > 0 && swarm.diversity() < minDiversity) {
+            return StopReason.DIVERSITY_COLLAPSE;
+        }
+        if (iteration >= maxIterations) {
+            return StopReason.MAX_ITERATIONS;
+        }
+        return null;
+    }
+
+    /**
+     * Copies the criteria, so a configuration can keep criteria that nobody else changes.
+     *
+     * @return new criteria with the same settings.
+     */
+    public StoppingCriteria copy() {
+        StoppingCriteria copy = new StoppingCriteria();
+        copy.maxIterations = maxIterations;
+        copy.targetValue = targetValue;
+        copy.stagnationIterations = stagnationIterations;
+        copy.minDiversity = minDiversity;
+        copy.maxEvaluations = maxEvaluations;
+        copy.timeLimitMillis = timeLimitMillis;
+        return copy;
+    }
+
+    /**
+     * Getter method for the maximum number of iterations.
+     * @return the maximum number of iterations.
+     */
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    /**
+     * Setter method for the maximum number of iterations.
+     * @param maxIterations is the maximum number of iterations.
+     */
+    public void setMaxIterations(int maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * Setter method for the target value, for example the optimum of the function plus some epsilon.
+     * @param targetValue is the value at or below which the run stops.
+     */
+    public void setTargetValue(double targetValue) {
+        this.targetValue = targetValue;
+    }
+
+    /**
+     * Setter method for the stagnation limit.
+     * @param stagnationIterations is the number of iterations without improvement of the best solution after which the run stops, or 0 to not check this.
+     */
+    public void setStagnationIterations(int stagnationIterations) {
+        this.stagnationIterations = stagnationIterations;
+    }
+
+    /**
+     * Setter method for the minimum diversity. Computing the diversity takes a pass over all positions, so it is only done when this is set.
+     * @param minDiversity is the mean distance to the centre of the swarm below which the run stops, or 0 to not check this.
+     */
+    public void setMinDiversity(double minDiversity) {
+        this.minDiversity = minDiversity;
+    }
+
+    /**
+     * Setter method for the maximum number of function evaluations. This is checked after each iteration, so a run can use up to one evaluation per particle more.
+     * @param maxEvaluations is the number of evaluations after which the run stops, or 0 to not check this.
+     */
+    public void setMaxEvaluations(long maxEvaluations) {
+        this.maxEvaluations = maxEvaluations;
+    }
+
+    /**
+     * Setter method for the time limit.
+     * @param timeLimitMillis is the wall-clock time in milliseconds after which the run stops, or 0 to not check this.
+     */
+    public void setTimeLimitMillis(long timeLimitMillis) {
+        this.timeLimitMillis = timeLimitMillis;
+    }
+}
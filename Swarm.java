@@ -1,7 +1,12 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Collections;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Swarm class that stores all particles in the swarm. It assigns neighbors to each particle, iterates to update each particle's velocity for 10000 iterations,
@@ -14,6 +19,96 @@ public class Swarm {
     //list containing all the particles in the swarm
     private List<Particle> allParticles; 
     
+    //the position, velocity and personal best arrays shared by all the particles in the swarm
+    private SwarmState state; 
+    
+    //the neighborhoods of the particles and the cached best particle of each neighborhood
+    private Topology topology; 
+    private NeighborhoodBest nbest; 
+    
+    //the rule that moves every particle, and what happens when a particle leaves the search space. Both are chosen once for the whole run. 
+    private UpdateStrategy strategy; 
+    private BoundaryPolicy boundary; 
+    
+    //changes the neighborhoods after every iteration for dynamic topologies, or null if the topology is static
+    private TopologyRewiring rewiring; 
+    private RandomStream rewireRand; 
+    
+    //the master seed, and the stream every other stream used by the swarm is split from, so a run can be repeated from its seed
+    private long seed; 
+    private RandomStream seedRand; 
+    
+    //every random stream used by the swarm, whose states are saved in checkpoints
+    private List<RandomStream> generators; 
+    
+    //the best solution found in the swarm, one entry for every 1000 iterations
+    private double[] iterations; 
+    
+    //evaluates the positions of the particles, by default one particle at a time with the swarm's function
+    private BatchEvaluator evaluator; 
+    
+    //the function of the swarm, which decides whether the evaluator is wrapped in a cache
+    private ObjectiveFunction objective; 
+
+    
+    //receives convergence samples every sampleInterval iterations while the swarm runs, or null if nobody is listening
+    private Telemetry telemetry; 
+    private int sampleInterval; 
+    
+    //scratch space for the centre of the swarm, used for the diversity of a sample
+    private double[] centroid; 
+    
+    //decides when run() stops, and the reason the last run stopped
+    private StoppingCriteria criteria; 
+    private StopReason stopReason; 
+    
+    //the number of function evaluations, the time the run started, the best solution and the iteration it last improved in, for the current run
+    private long evaluations; 
+    private long runStart; 
+    
+    //the misses of the evaluation cache that were already counted as evaluations, since its hits cost no evaluation 
+    private long countedMisses; 
+    private double bestValue; 
+    private int lastImprovement; 
+    private int stoppedAt; 
+    
+    //the last iteration that finished, which is where a resumed run continues from
+    private int iteration; 
+    
+    //whether the state was restored from a checkpoint since the last run, and how long the checkpointed run had taken
+    private boolean resumed; 
+    private long resumedNanos; 
+    
+    //saves the state every checkpointInterval iterations, or null if no checkpoints are taken
+    private Checkpoint checkpoint; 
+    private int checkpointInterval; 
+    
+    //exchanges particles with other swarms every migrationInterval iterations in the island model, or null if the swarm runs on its own
+    private Island island; 
+    private int migrationInterval; 
+    
+    //whether the particles are updated synchronously in parallel, and with how many threads
+    private boolean synchronous; 
+    private int threads; 
+    
+    //the particle ranges updated by the threads in synchronous mode, or null in asynchronous mode
+    private ParticleRange[] ranges; 
+    
+    //the tasks of synchronous mode, which are reused in every iteration, and whether each particle's personal best improved in the current iteration
+    private RecursiveAction allRanges; 
+    private RecursiveAction evaluateAll; 
+    private boolean[] improved; 
+    
+    //the threads of synchronous mode, which only exist while a run is going on
+    private ForkJoinPool pool; 
+    
+    //counts the work of the current run and times its phases, only used if Profiler.ENABLED is true 
+    private Profiler profiler; 
+    
+    //the configuration the swarm was created from, and whether a run has been started and has not stopped yet
+    private SwarmConfig config; 
+    private boolean running; 
+    
     /**
      * Constructor for the swarm. 
      * This creates a number of particles and assigns them to allParticles. Then it assigns neighborhoods to each particle depending on user-specified topology. 
@@ -25,207 +120,914 @@ public class Swarm {
      * @param topology is the neighborhood topology. 
      */
     public Swarm(int numParticles, String function, String topology) {
+        this(numParticles, function, topology, false, 1, new Random().nextLong()); 
+        run(); 
+        
+        //outputs the best solution found to functions at every 1000 iterations, and the seed that repeats the run. 
+        System.out.println(Arrays.toString(iterations)); 
+        System.out.println("seed " + seed); 
+    }
+    
+    /**
+     * Constructor for the swarm that also selects how particles are updated, with the defaults of SwarmConfig for everything else. 
+     * This creates the particles and their neighborhoods, but does not run the iterations or print anything, see run(). 
+     * 
+     * @param numParticles the total number of particles in the swarm. 
+     * @param function is the function that this swarm and its particles will solve. 
+     * @param topology is the neighborhood topology. 
+     * @param synchronous is whether the particles are updated synchronously in parallel instead of one after another. 
+     * @param threads is the number of threads used in synchronous mode. 
+     * @param seed is the seed for all random numbers used by the swarm. 
+     */
+    public Swarm(int numParticles, String function, String topology, boolean synchronous, int threads, long seed) {
+        this(SwarmConfig.builder().particles(numParticles).function(function).topology(topology).synchronous(synchronous).threads(threads).seed(seed).build()); 
+    }
+    
+    /**
+     * Constructor for the swarm from a configuration. 
+     * This creates the particles and their neighborhoods, but does not run the iterations or print anything, see run() and step(). 
+     * In asynchronous mode the particles are updated one after another, so each particle already sees the personal bests found by the particles updated before it. 
+     * In synchronous mode every iteration has three phases: first all particles move in parallel, then the whole swarm is evaluated in one batch, and then the personal 
+     * and neighborhood bests are updated. The particles are split into one contiguous range per thread and every range has its own random stream, 
+     * so a synchronous run gives the same result for the same seed and number of threads. 
+     * Every particle, thread and the topology get their own stream split from the seed, so no random numbers are shared between threads. 
+     * 
+     * @param config is the configuration of the swarm. 
+     */
+    public Swarm(SwarmConfig config) {
+        this.config = config; 
+        int numParticles = config.getParticles(); 
         allParticles = new ArrayList<Particle>(); 
+        state = new SwarmState(numParticles, config.getDimensions()); 
+        seed = config.getSeed(); 
+        seedRand = new RandomStream(seed); 
+        generators = new ArrayList<RandomStream>(); 
+        generators.add(seedRand); 
+        
+        //the function is looked up once, so particles do not compare strings every time they evaluate it
+        objective = ObjectiveFunction.forName(config.getFunction()); 
+        
+        //depending on topology, builds the neighborhoods of the particles. For the global topology all particles share one neighborhood, so there is a single swarm-wide best. 
+        this.topology = Topology.forName(config.getTopology(), numParticles, seedRand.split()); 
+        nbest = new NeighborhoodBest(this.topology, state); 
+        profiler = new Profiler(); 
+        nbest.profiler = profiler; 
+        
+        //the search space of the boundary policy is the one of the function, and the velocity limit is spread over all dimensions if it is a single value 
+        Arrays.fill(state.lower, objective.getLowerBound()); 
+        Arrays.fill(state.upper, objective.getUpperBound()); 
+        double[] velocityLimit = config.getVelocityLimit(); 
+        if (velocityLimit != null) {
+            setVelocityLimit(velocityLimit); 
+        }
+        strategy = config.getStrategy(); 
+        boundary = config.getBoundary(); 
         
         //initialises particles and adds them to list of all particles (that represents the swarm). 
         for (int i = 0; i < numParticles; i ++) {
-            Particle particle = new Particle(function); 
+            RandomStream rand = seedRand.split(); 
+            Particle particle = new Particle(objective, state, i, rand, nbest); 
+            particle.setUpdate(strategy, boundary); 
             allParticles.add(particle); 
+            generators.add(rand); 
+        }
+        evaluator = new FunctionEvaluator(objective); 
+        if (config.getCacheEntries() > 0) {
+            setEvaluationCache(config.getCacheEntries(), config.getCacheTolerance()); 
+        }
+        rewireRand = seedRand.split(); 
+        generators.add(rewireRand); 
+    
+    criteria = config.getCriteria(); 
+    centroid = new double[state.dimensions]; 
+    
+    this.synchronous = config.isSynchronous(); 
+    this.threads = config.getThreads(); 
+    if (synchronous) {
+        int count = Math.max(1, Math.min(threads, numParticles)); 
+        ranges = new ParticleRange[count]; 
+        for (int r = 0; r < count; r++) {
+            RandomStream rand = seedRand.split(); 
+            ranges[r] = new ParticleRange(r * numParticles / count, (r + 1) * numParticles / count, rand); 
+            generators.add(rand); 
         }
         
+        improved = new boolean[numParticles]; 
+        ParticleRange[] tasks = ranges; 
+        allRanges = new RecursiveAction() {
+            protected void compute() {
+                invokeAll(tasks); 
+            }
+        }; 
+        evaluateAll = new RecursiveAction() {
+            protected void compute() {
+                evaluator.evaluate(state.position, state.dimensions, 0, allParticles.size(), state.value); 
+            }
+        }; 
+    }
+}
+
+    /**
+     * Calls on the update method for each particle to update its velocity and position, either one particle after another or synchronously in parallel, 
+     * until one of the stopping criteria is met (by default after 10000 iterations). 
+     * If the run stops early, the remaining entries of the result hold the final best solution, since the best solution cannot change after the run stopped. 
+     * If the swarm was resumed from a checkpoint, or a run was started with step() and has not stopped yet, the run continues instead of starting over. 
+     * 
+     * @return the best solution found in the swarm at every 1000 iterations. The array is reused by the next run of this swarm. 
+     */
+    public double[] run() {
+    try {
+        while (step()) {
+            //every step is one iteration, until the stopping criteria are met
+        }
+    } finally {
+        //if an iteration failed, the threads of synchronous mode are not left behind
+        if (running) {
+            stopPool(); 
+        }
+    }
+    return iterations; 
+}
+
+    /**
+     * Runs a single iteration, starting a new run first if no run is going on. 
+     * This lets a caller interleave iterations with its own work, for example to watch the swarm or to run several swarms on one thread. 
+     * 
+     * @return whether the run goes on, false if the stopping criteria were met in this iteration. 
+     */
+    public boolean step() {
+        if (!running) {
+            start(); 
+        }
+        if (synchronous && pool == null) {
+            pool = new ForkJoinPool(ranges.length); 
+        }
         
-        //depending on topology, it calls on methods that assign neighbors to each particle
-            if (topology.equals("gl")) {
-                 for (int i = 0; i < allParticles.size(); i++) {
-                     Particle particle = allParticles.get(i); 
-                     particle.assignNList(allParticles); 
-                 }
-            } else if (topology.equals("ri")) {
-                ringN(); 
-            } else if (topology.equals("vn")) {
-                neumannN(); 
-            } else if (topology.equals("ra")) {
-                randomN(); 
+        int iter = ++iteration; 
+        long start = System.nanoTime(); 
+        state.progress = (iter - 1) / (double) criteria.getMaxIterations(); 
+        if (synchronous) {
+            iterateSynchronous(); 
+        } else {
+            //the time of each phase is summed over the particles, the checks of the constant ENABLED are removed by the JIT when profiling is off
+            long moveNanos = 0; 
+            long evaluateNanos = 0; 
+            long bestNanos = 0; 
+            for (int p = 0; p < allParticles.size(); p++) {
+                Particle particle = allParticles.get(p); 
+                long t0 = Profiler.ENABLED ? System.nanoTime() : 0; 
+                particle.move(); 
+                long t1 = Profiler.ENABLED ? System.nanoTime() : 0; 
+                
+                //the particle is evaluated on its own, since the next particle has to see its new personal best
+                evaluator.evaluate(state.position, state.dimensions, p, p + 1, state.value); 
+                long t2 = Profiler.ENABLED ? System.nanoTime() : 0; 
+                if (particle.commitPBest(state.value[p])) {
+                    particle.notifyNeighborhoods(); 
+                    if (Profiler.ENABLED) {
+                        profiler.pbestImprovements.increment(); 
+                    }
+                }
+                if (Profiler.ENABLED) {
+                    moveNanos += t1 - t0; 
+                    evaluateNanos += t2 - t1; 
+                    bestNanos += System.nanoTime() - t2; 
+                }
+            }
+            if (Profiler.ENABLED) {
+                profiler.record(Profiler.Phase.MOVE, moveNanos); 
+                profiler.record(Profiler.Phase.EVALUATE, evaluateNanos); 
+                profiler.record(Profiler.Phase.BEST, bestNanos); 
             }
+        }
+        if (rewiring != null) {
+            long t0 = Profiler.ENABLED ? System.nanoTime() : 0; 
+            rewiring.rewire(iter, topology, nbest, state, rewireRand); 
+            if (Profiler.ENABLED) {
+                profiler.record(Profiler.Phase.REWIRE, System.nanoTime() - t0); 
+            }
+        }
+        finishIteration(iter, start); 
+        return running; 
+    }
     
-    //the list contains the best values found by each neighborhood.
-    List<Double> NBestValues = new ArrayList<Double>(); 
+    /**
+     * Starts a run: resets the counters, unless the swarm was resumed from a checkpoint. 
+     */
+    private void start() {
+        //the best solution from the best values found by each neighborhood, one entry for every 1000 iterations. 
+        //a primitive array is used so that the iteration loop does not box or allocate. 
+        if (resumed) {
+            iterations = Arrays.copyOf(iterations, criteria.getMaxIterations() / 1000); 
+            runStart = System.nanoTime() - resumedNanos; 
+            resumed = false; 
+        } else {
+            if (iterations == null || iterations.length != criteria.getMaxIterations() / 1000) {
+                iterations = new double[criteria.getMaxIterations() / 1000]; 
+            }
+            Arrays.fill(iterations, 0.0); 
+            evaluations = 0; 
+            if (Profiler.ENABLED) {
+                profiler.reset(); 
+                profiler.runs.increment(); 
+            }
+            runStart = System.nanoTime(); 
+            bestValue = Double.MAX_VALUE; 
+            lastImprovement = 0; 
+            iteration = 0; 
+        }
+        if (Profiler.ENABLED) {
+            Profiler.total().begin(profiler); 
+        }
+        stopReason = null; 
+        running = true; 
+    }
     
-    //the list contains the best solution from the best values found by each neighborhood
-    List<Double> iterations = new ArrayList<Double>(); 
+    /**
+     * Ends a run after the stopping criteria were met. The remaining entries of the result hold the final best solution, and the threads of synchronous mode are stopped. 
+     */
+    private void finishRun() {
+        for (int i = 0; i < iterations.length; i++) {
+            if ((i + 1) * 1000 > stoppedAt) {
+                iterations[i] = bestValue; 
+            }
+        }
+        stopPool(); 
+        
+        //the summary goes to System.err, so the results printed to System.out can still be read by other programs 
+        if (Profiler.ENABLED) {
+            System.err.println("profile of " + config.getFunction() + " " + config.getTopology() + " " + state.size + " (seed " + seed + ", " + stopReason + "): " 
+                    + profiler.getSummary()); 
+            Profiler.total().merge(profiler); 
+        }
+    }
     
+    /**
+     * Stops the threads of synchronous mode, they are started again by the next step. 
+     */
+    private void stopPool() {
+        running = false; 
+        if (pool != null) {
+            pool.shutdown(); 
+            pool = null; 
+        }
+    }
 
-    for (int iter = 1; iter <= 10000; iter++) {
-        NBestValues.clear(); 
+    /**
+     * Runs one iteration in synchronous mode. The velocity and position updates are spread over the threads of a ForkJoinPool, 
+     * then the whole swarm is handed to the evaluator in one batch (which runs in the same pool so it can evaluate in parallel), 
+     * then the personal bests are committed in parallel, and finally the neighborhoods are told about the improvements on this thread. 
+     * There is one thread for every particle range. 
+     */
+    private void iterateSynchronous() {
+        //phase one: move every particle against the bests of the previous iteration
+        long t0 = Profiler.ENABLED ? System.nanoTime() : 0; 
+        runPhase(false); 
+        
+        //batch evaluation of the new positions
+        long t1 = Profiler.ENABLED ? System.nanoTime() : 0; 
+        evaluateAll.reinitialize(); 
+        pool.invoke(evaluateAll); 
+        
+        //phase two: commit personal bests, then update the neighborhood bests one particle at a time
+        long t2 = Profiler.ENABLED ? System.nanoTime() : 0; 
+        runPhase(true); 
         for (int p = 0; p < allParticles.size(); p++) {
-            Particle particle = allParticles.get(p); 
-            particle.update(); 
-        
-                //each 1000 iterations, the best solution obtained from the swarm of particles is added to list iterations
-                if (iter % 1000 == 0) {
-                    NBestValues.add(particle.findNBestValue()); //adds the best value found from each particles neighborhood to a list. 
-                    if (p == allParticles.size() - 1) {
-                       //finds the minimum value from all the neighborhood bests and adds it to a list that maintains the solution found at this iteration
-                        iterations.add(Collections.min(NBestValues)); 
-                    }
-                }    
-        }         
+            if (improved[p]) {
+                allParticles.get(p).notifyNeighborhoods(); 
+                if (Profiler.ENABLED) {
+                    profiler.pbestImprovements.increment(); 
+                }
+            }
+        }
+        if (Profiler.ENABLED) {
+            profiler.record(Profiler.Phase.MOVE, t1 - t0); 
+            profiler.record(Profiler.Phase.EVALUATE, t2 - t1); 
+            profiler.record(Profiler.Phase.BEST, System.nanoTime() - t2); 
+        }
     }
- 
-    //outputs the best solution found to functions at every 1000 iterations. 
-    System.out.println(iterations); 
     
-}
-
-/**
-     * Creates a neighborhood for each particle based on ring topology. Each particle has 2 neighbors. 
-     * The neighborhoods list is being populated with the particle, and its two neighbors. The method creates sublists that hold each neighborhood. 
-     * Each index position in the neighborhoods list should correspond to the particle whose neighbors are stored in that index position. For example,
-     * index position 3 contains particle 3 and particle 3's neighbors.
-     */
-    public void ringN() {
-        for (int i = 0; i < allParticles.size(); i++) {
-                Particle particle = allParticles.get(i); 
-            if (i == 0){ //Ring topology should wrap around. Therefore, the neighbors of the first particle in the list should be the last and the one in the next index position. 
-                particle.assignN(allParticles.get(allParticles.size()-1));
-                particle.assignN(allParticles.get(i + 1));
-            } else if (i == allParticles.size() - 1){ //if particle is last in the swarm, its neighbors should be first element and the one to its left (index-1). 
-                particle.assignN(allParticles.get(0));
-                particle.assignN(allParticles.get(i-1));
-            } else{
-                particle.assignN(allParticles.get(i - 1));
-                particle.assignN(allParticles.get(i + 1));
+    /**
+     * Runs one phase of a synchronous iteration over all particle ranges and waits for all of them to finish. 
+     * In the commit phase, improved is filled with whether each particle's personal best improved. 
+     * 
+     * @param commit is whether this is the commit phase instead of the move phase. 
+     */
+    private void runPhase(boolean commit) {
+        for (int r = 0; r < ranges.length; r++) {
+            ranges[r].reinitialize(); 
+            ranges[r].commit = commit; 
+            ranges[r].improved = improved; 
+        }
+        allRanges.reinitialize(); 
+        pool.invoke(allRanges); 
+    }
+    
+    /**
+     * Called after every iteration. Exchanges particles with the other islands every migrationInterval iterations, records the best solution every 1000 iterations, sends a sample to the telemetry every sampleInterval iterations 
+     * and checks the stopping criteria, which sets stopReason when the run should stop. If the run goes on, a checkpoint is taken every checkpointInterval iterations. 
+     * 
+     * @param iter is the iteration that just finished. 
+     * @param start is System.nanoTime() at the start of the iteration. 
+     */
+    private void finishIteration(int iter, long start) {
+        long now = System.nanoTime(); 
+        long evaluated = allParticles.size(); 
+        if (evaluator instanceof CachingEvaluator) {
+            long misses = ((CachingEvaluator) evaluator).getMisses(); 
+            evaluated = misses - countedMisses; 
+            countedMisses = misses; 
+        }
+        evaluations += evaluated; 
+        if (Profiler.ENABLED) {
+            profiler.evaluations.add(evaluated); 
+            profiler.record(Profiler.Phase.ITERATION, now - start); 
+        }
+        
+        //immigrants are counted as improvements of this swarm, so migration comes before the best solution is updated
+        if (island != null && iter % migrationInterval == 0) {
+            island.migrate(); 
+        }
+        
+        double best = Double.MAX_VALUE; 
+        for (int p = 0; p < allParticles.size(); p++) {
+            best = Math.min(best, state.pbest[p]); 
+        }
+        if (best < bestValue) {
+            bestValue = best; 
+            lastImprovement = iter; 
+        }
+        
+        recordBest(iter); 
+        if (telemetry != null && iter % sampleInterval == 0) {
+            sample(iter, now - start); 
+        }
+        stopReason = criteria.check(iter, bestValue, lastImprovement, evaluations, now - runStart, this); 
+        if (stopReason != null) {
+            stoppedAt = iter; 
+            finishRun(); 
+        } else if (checkpoint != null && iter % checkpointInterval == 0) {
+            checkpoint.save(this); 
+        }
+    }
+    
+    /**
+     * Resets the swarm to start again from new particles, as if it had just been created with the given seed, so that a swarm can be reused 
+     * without allocating it again. A run that is going on is abandoned. The settings made with setters (evaluator, telemetry, rewiring and so on) are kept, 
+     * and a rewiring forgets its state. With the same seed, the next run gives the same result as the first run of the swarm. 
+     * 
+     * @param seed is the seed for all random numbers used from now on. 
+     */
+    public void reset(long seed) {
+        stopPool(); 
+        resumed = false; 
+        stopReason = null; 
+        stoppedAt = 0; 
+        iteration = 0; 
+        
+        //the streams are split again in the order the constructor split them
+        this.seed = seed; 
+        seedRand.reset(seed); 
+        RandomStream topologyRand = seedRand.split(); 
+        if (rewiring != null || config.getTopology().equals("ra")) {
+            topology.copyFrom(Topology.forName(config.getTopology(), state.size, topologyRand)); 
+        }
+        for (int g = 1; g < generators.size(); g++) {
+            seedRand.splitInto(generators.get(g)); 
+        }
+        if (rewiring != null) {
+            rewiring.reset(); 
+        }
+        
+        //a cache filled with tolerance would otherwise hand the new run values of positions from the last one 
+        if (evaluator instanceof CachingEvaluator) {
+            ((CachingEvaluator) evaluator).clear(); 
+            countedMisses = 0; 
+        }
+        
+        for (int p = 0; p < allParticles.size(); p++) {
+            allParticles.get(p).initialise(); 
+        }
+        nbest.rebuild(); 
+    }
+    
+    /**
+     * Getter method for the current iteration. 
+     * @return the number of iterations of the current or last run so far. 
+     */
+    public int getIteration() {
+        return iteration; 
+    }
+    
+    /**
+     * Getter method for whether a run is going on. 
+     * @return whether a run has been started and has not met the stopping criteria yet. 
+     */
+    public boolean isRunning() {
+        return running; 
+    }
+    
+    /**
+     * Getter method for the configuration. 
+     * @return the configuration the swarm was created from. 
+     */
+    public SwarmConfig getConfig() {
+        return config; 
+    }
+    
+    /**
+     * Getter method for the last iteration of the last run. 
+     * @return the iteration in which the last run stopped. 
+     */
+    public int getLastIteration() {
+        return stoppedAt; 
+    }
+    
+    /**
+     * Computes the diversity of the swarm, which is the mean distance of the particles to the centre of the swarm. 
+     * 
+     * @return the diversity of the swarm. 
+     */
+    public double diversity() {
+        int dimensions = state.dimensions; 
+        Arrays.fill(centroid, 0.0); 
+        for (int p = 0; p < allParticles.size(); p++) {
+            int offset = state.offset(p); 
+            for (int i = 0; i < dimensions; i++) {
+                centroid[i] += state.position[offset + i] / allParticles.size(); 
             }
+        }
+        
+        double diversity = 0; 
+        for (int p = 0; p < allParticles.size(); p++) {
+            int offset = state.offset(p); 
+            double distance = 0; 
+            for (int i = 0; i < dimensions; i++) {
+                double d = state.position[offset + i] - centroid[i]; 
+                distance += d * d; 
+            }
+            diversity += Math.sqrt(distance) / allParticles.size(); 
+        }
+        return diversity; 
+    }
+    
+    /**
+     * Computes the global best, the spread of the neighborhood bests, the mean velocity and the diversity of the swarm and records them with the telemetry. 
+     * This only reads the primitive state arrays, so it does not allocate. 
+     * 
+     * @param iter is the iteration that just finished. 
+     * @param nanos is how long the iteration took. 
+     */
+    private void sample(int iter, long nanos) {
+        int dimensions = state.dimensions; 
+        double best = Double.MAX_VALUE; 
+        double worstNBest = -Double.MAX_VALUE; 
+        double bestNBest = Double.MAX_VALUE; 
+        double velocity = 0; 
+        
+        for (int p = 0; p < allParticles.size(); p++) {
+            best = Math.min(best, state.pbest[p]); 
+            double nbest = allParticles.get(p).findNBestValue(); 
+            worstNBest = Math.max(worstNBest, nbest); 
+            bestNBest = Math.min(bestNBest, nbest); 
             
-            particle.assignN(particle); //this current particle is also assigned to the neighborhood. 
-
+            int offset = state.offset(p); 
+            double speed = 0; 
+            for (int i = 0; i < dimensions; i++) {
+                speed += state.velocity[offset + i] * state.velocity[offset + i]; 
+            }
+            velocity += Math.sqrt(speed) / allParticles.size(); 
         }
+        
+        telemetry.record(iter, best, worstNBest - bestNBest, velocity, diversity(), nanos); 
     }
     
     /**
-     * Assigns neighborhoods to each particle in the swarm using Von Neumann topology. 
-     * Particles are imagined to be in a gird that wraps aorund in both directions, and the 
-     * neighbors of each particle are the particles above, below, and to the left and right of it. 
-     */
-    public void neumannN() {
-        
-        Particle[][] topology; 
-        int row = 0; 
-        int col = 0; 
-    
-        //determines dimensions for von neumann array (matrix/grid size) depending on number of particles in the swarm. 
-        if (allParticles.size() == 16) {
-            row = 4; 
-            col = 4; 
-        } else if (allParticles.size() == 30) {
-            row = 5; 
-            col = 6; 
-        } else if (allParticles.size() == 49) {
-            row = 7; 
-            col = 7; 
-        }
-        
-        //assigns each particle to a cell in the matrix/grid. 
-        topology = new Particle[row][col]; 
-        int count = 0; 
-        for (int i = 0; i < row; i ++) {
-            for (int j = 0; j < col; j++) {
-                topology[i][j] = allParticles.get(count); 
-                count+=1; 
-            }
-        }
-        
-        
-        for (int i = 0; i < row; i ++) {
-            for (int j = 0; j < col; j++) {
-                //the following conditions consider if going up, down, right, or left would reach the end of the matrix and wraps around to assign neighbors accordingly.
-                if (i == 0 && j == 0) { //if both row and column are 0
-                    topology[i][j].assignN(topology[row-1][j]); //top
-                    topology[i][j].assignN(topology[i][col-1]); //left
-        
-                    topology[i][j].assignN(topology[i+1][j]); //bottom
-                    topology[i][j].assignN(topology[i][j+1]); //right
-                } else if (i == 0 && j == col-1) {
-                    topology[i][j].assignN(topology[row-1][j]);//top
-                   topology[i][j].assignN(topology[i][0]); //right
-                    
-                   topology[i][j].assignN(topology[i][j-1]); //left
-                    topology[i][j].assignN((topology[i+1][j]));//bottom
-                } else if (i == row-1 && j == 0) {
-                    topology[i][j].assignN(topology[i][col-1]);//left 
-                    topology[i][j].assignN(topology[0][j]); //bottom
-                    
-                    topology[i][j].assignN(topology[i-1][j]);//top
-                   topology[i][j].assignN(topology[i][j+1]);//right
-                } else if (i == row-1 && j == col-1) {
-                    topology[i][j].assignN(topology[0][j]); //bottom
-                    topology[i][j].assignN(topology[i][0]);//right
-                    
-                    topology[i][j].assignN(topology[i][j-1]);//left
-                    topology[i][j].assignN(topology[i-1][j]);//top
-                } else if (i == 0) {
-                    topology[i][j].assignN(topology[row-1][i]); //top
-                    
-                   topology[i][j].assignN(topology[i][j-1]);//left
-                   topology[i][j].assignN(topology[i][j+1]);//right
-                   topology[i][j].assignN(topology[i+1][j]); //bottom
-                } else if (i == row-1) {
-                    topology[i][j].assignN(topology[0][j]);//bottom 
-                    
-                    topology[i][j].assignN(topology[i][j-1]);//left
-                    topology[i][j].assignN(topology[i][j+1]);//right
-                   topology[i][j].assignN(topology[i-1][j]);//top
-                } else if (j == 0) {
-                    topology[i][j].assignN(topology[i][col-1]);//left
-                    
-                    topology[i][j].assignN(topology[i][j+1]);//right
-                   topology[i][j].assignN(topology[i-1][j]);//top
-                   topology[i][j].assignN(topology[i+1][j]); //bottom
-                } else if (j == col-1) {
-                    topology[i][j].assignN(topology[i][0]); //right                    
-                    
-                    topology[i][j].assignN(topology[i-1][j]); //top
-                    topology[i][j].assignN(topology[i][j-1]); //left
-                    topology[i][j].assignN(topology[i+1][j]); //bottom
-                } else {
-                    topology[i][j].assignN(topology[i+1][j]);
-                    topology[i][j].assignN(topology[i-1][j]); 
-                    topology[i][j].assignN(topology[i][j-1]); 
-                    topology[i][j].assignN(topology[i][j+1]); 
-                }
-                
-                topology[i][j].assignN(topology[i][j]); 
-
+     * Every 1000 iterations, stores the best solution found in the swarm, which is the minimum of all the neighborhood bests. 
+     * 
+     * @param iter is the iteration that just finished. 
+     */
+    private void recordBest(int iter) {
+        if (iter % 1000 == 0) {
+            double nBestValue = Double.MAX_VALUE; 
+            for (int p = 0; p < allParticles.size(); p++) {
+                nBestValue = Math.min(nBestValue, allParticles.get(p).findNBestValue()); //keeps the best value found from each particles neighborhood. 
+            }
+            iterations[iter / 1000 - 1] = nBestValue; 
+        }
+    }
+    
+    /**
+     * Replaces the evaluator of the swarm, for example with one that evaluates the whole swarm in a single call to an external program. 
+     * The swarm's function is still used for the initialisation ranges of the particles. 
+     * 
+     * @param evaluator is the evaluator used from now on. 
+     */
+    public void setEvaluator(BatchEvaluator evaluator) {
+        this.evaluator = evaluator; 
+    }
+    
+    /**
+     * Caches the values of the function for positions the particles come back to, see CachingEvaluator. The cache wraps the current evaluator, 
+     * so it is set after setEvaluator, for example to save round trips to remote workers. An existing cache is replaced. 
+     * Cheap functions, whose isExpensive() is false, are never cached, since a lookup would take longer than the evaluation. 
+     * 
+     * @param entries is the most values kept, or 0 to remove the cache. 
+     * @param tolerance is the size of the grid cells positions are quantized to, or 0 to only reuse the values of equal positions. 
+     */
+    public void setEvaluationCache(int entries, double tolerance) {
+        if (evaluator instanceof CachingEvaluator) {
+            evaluator = ((CachingEvaluator) evaluator).getDelegate(); 
+        }
+        if (entries > 0 && objective.isExpensive()) {
+            evaluator = new CachingEvaluator(evaluator, entries, tolerance); 
+            countedMisses = 0; 
+        }
+    }
+    
+    /**
+     * Getter method for the profiler. It only counts and times anything if profiling was switched on with -Dpso.profile=true. 
+     * @return the profiler of the current or last run. 
+     */
+    public Profiler getProfiler() {
+        return profiler; 
+    }
+    
+    /**
+     * Getter method for the evaluator, for example to read the hit rate of a CachingEvaluator. 
+     * @return the evaluator that evaluates the positions of the particles. 
+     */
+    public BatchEvaluator getEvaluator() {
+        return evaluator; 
+    }
+    
+    /**
+     * Streams convergence samples to the given telemetry while the swarm runs. The telemetry is not closed by the swarm. 
+     * 
+     * @param telemetry receives the samples, or null to stop sampling. 
+     * @param sampleInterval is the number of iterations between two samples. 
+     */
+    public void setTelemetry(Telemetry telemetry, int sampleInterval) {
+        this.telemetry = telemetry; 
+        this.sampleInterval = Math.max(1, sampleInterval); 
+    }
+    
+    /**
+     * Makes the topology dynamic: after every iteration the rewiring may change the neighborhoods. 
+     * 
+     * @param rewiring changes the neighborhoods, or null for a static topology. 
+     */
+    public void setRewiring(TopologyRewiring rewiring) {
+        this.rewiring = rewiring; 
+    }
+    
+    /**
+     * Replaces the rule that moves the particles, for example with the inertia weight, fully informed or bare-bones update. 
+     * 
+     * @param strategy is the update strategy used by every particle from now on. 
+     */
+    public void setUpdateStrategy(UpdateStrategy strategy) {
+        this.strategy = strategy; 
+        for (Particle particle : allParticles) {
+            particle.setUpdate(strategy, boundary); 
+        }
+    }
+    
+    /**
+     * Sets what happens when a particle leaves the search space given by the bounds of the function. 
+     * 
+     * @param boundary is the boundary policy used by every particle from now on. 
+     */
+    public void setBoundaryPolicy(BoundaryPolicy boundary) {
+        this.boundary = boundary; 
+        for (Particle particle : allParticles) {
+            particle.setUpdate(strategy, boundary); 
+        }
+    }
+    
+    /**
+     * Limits the absolute velocity of the particles, so they cannot jump far outside the useful region of the search space. 
+     * 
+     * @param vmax is the largest absolute velocity, either one value for every dimension or one value per dimension. 
+     *        Double.POSITIVE_INFINITY removes the limit. 
+     * @throws IllegalArgumentException if the number of values is neither 1 nor the number of dimensions. 
+     */
+    public void setVelocityLimit(double... vmax) {
+        if (vmax.length == 1) {
+            Arrays.fill(state.vmax, vmax[0]); 
+        } else if (vmax.length == state.dimensions) {
+            System.arraycopy(vmax, 0, state.vmax, 0, vmax.length); 
+        } else {
+            throw new IllegalArgumentException("Expected 1 or " + state.dimensions + " velocity limits but got " + vmax.length); 
+        }
+    }
+    
+    /**
+     * Replaces the stopping criteria used by run(). 
+     * 
+     * @param criteria decides when a run stops. 
+     */
+    public void setStoppingCriteria(StoppingCriteria criteria) {
+        this.criteria = criteria; 
+    }
+    
+    /**
+     * Saves the state of the swarm every checkpointInterval iterations while it runs, so the run can be resumed after it was stopped. 
+     * The checkpoint is not closed by the swarm. 
+     * 
+     * @param checkpoint writes the checkpoints, or null to stop taking checkpoints. 
+     * @param checkpointInterval is the number of iterations between two checkpoints. 
+     */
+    public void setCheckpoint(Checkpoint checkpoint, int checkpointInterval) {
+        this.checkpoint = checkpoint; 
+        this.checkpointInterval = Math.max(1, checkpointInterval); 
+    }
+    
+    /**
+     * Restores the state of the swarm from a checkpoint file, so the next call to run() continues the checkpointed run. 
+     * The swarm must be created with the same number of particles, topology, mode and number of threads as the checkpointed one, and with the same rewiring and evaluation cache, 
+     * then the resumed run gives exactly the same results as the run would have without the interruption. Only the time limit can differ, since it is wall-clock time. 
+     * 
+     * @param file is the checkpoint file. 
+     * @throws IOException if the file cannot be read or is not a complete checkpoint. 
+     */
+    public void resume(Path file) throws IOException {
+        readCheckpoint(Checkpoint.load(file)); 
+    }
+    
+    /**
+     * Returns the number of bytes writeCheckpoint will write, which can change when a dynamic topology grows. 
+     * 
+     * @return the size of the state of the swarm in bytes. 
+     */
+    int checkpointBytes() {
+        int neighborhoods = topology.getNeighborhoods(); 
+        return 5 * Integer.BYTES + 2 * Integer.BYTES + 2 * Long.BYTES + Double.BYTES 
+                + Integer.BYTES + iterations.length * Double.BYTES 
+                + Integer.BYTES + generators.size() * RandomStream.STATE_BYTES 
+                + 3 * state.position.length * Double.BYTES + state.size * Double.BYTES 
+                + (neighborhoods + 1 + topology.offsets[neighborhoods] + neighborhoods) * Integer.BYTES 
+                + Integer.BYTES + (rewiring == null ? 0 : rewiring.stateBytes()) 
+                + Integer.BYTES + (evaluator instanceof CachingEvaluator ? ((CachingEvaluator) evaluator).stateBytes() : 0); 
+    }
+    
+    /**
+     * Writes the state of the swarm after the current iteration. The layout is: the number of particles, dimensions and neighborhoods, the capacity and number 
+     * of neighborhood members, the iteration, the iteration of the last improvement, the number of evaluations, the best value, the elapsed nanoseconds, 
+     * the best solution every 1000 iterations, the states of the random streams, the positions, velocities, personal best positions and personal 
+     * best values, the neighborhood offsets, members and cached bests, the state of the rewiring and the entries of the evaluation cache. 
+     * Arrays are preceded by their length where it is not known from the sizes. 
+     * The values at the current positions are not saved, since every iteration evaluates them again before they are used. 
+     * 
+     * @param out is the buffer the state is written to. 
+     */
+    void writeCheckpoint(ByteBuffer out) {
+        int neighborhoods = topology.getNeighborhoods(); 
+        int members = topology.offsets[neighborhoods]; 
+        out.putInt(state.size).putInt(state.dimensions).putInt(neighborhoods).putInt(topology.indices.length).putInt(members); 
+        out.putInt(iteration).putInt(lastImprovement).putLong(evaluations).putDouble(bestValue).putLong(System.nanoTime() - runStart); 
+        
+        out.putInt(iterations.length); 
+        Checkpoint.putDoubles(out, iterations, iterations.length); 
+        out.putInt(generators.size()); 
+        for (int g = 0; g < generators.size(); g++) {
+            generators.get(g).save(out); 
+        }
+        
+        Checkpoint.putDoubles(out, state.position, state.position.length); 
+        Checkpoint.putDoubles(out, state.velocity, state.velocity.length); 
+        Checkpoint.putDoubles(out, state.pbestPosition, state.pbestPosition.length); 
+        Checkpoint.putDoubles(out, state.pbest, state.size); 
+        
+        Checkpoint.putInts(out, topology.offsets, neighborhoods + 1); 
+        Checkpoint.putInts(out, topology.indices, members); 
+        Checkpoint.putInts(out, nbest.best, neighborhoods); 
+        
+        out.putInt(rewiring == null ? 0 : rewiring.stateBytes()); 
+        if (rewiring != null) {
+            rewiring.saveState(out); 
+        }
+        
+        CachingEvaluator cache = evaluator instanceof CachingEvaluator ? (CachingEvaluator) evaluator : null; 
+        out.putInt(cache == null ? 0 : cache.stateBytes()); 
+        if (cache != null) {
+            cache.saveState(out); 
+        }
+    }
+    
+    /**
+     * Reads the state written by writeCheckpoint. 
+     * 
+     * @param in is the buffer the state is read from. 
+     */
+    private void readCheckpoint(ByteBuffer in) {
+        int size = in.getInt(); 
+        int dimensions = in.getInt(); 
+        int neighborhoods = in.getInt(); 
+        if (size != state.size || dimensions != state.dimensions || neighborhoods != topology.getNeighborhoods()) {
+            throw new IllegalArgumentException("The checkpoint has " + size + " particles, " + dimensions + " dimensions and " + neighborhoods 
+                    + " neighborhoods, but the swarm has " + state.size + ", " + state.dimensions + " and " + topology.getNeighborhoods()); 
+        }
+        int capacity = in.getInt(); 
+        int members = in.getInt(); 
+        
+        iteration = in.getInt(); 
+        lastImprovement = in.getInt(); 
+        evaluations = in.getLong(); 
+        bestValue = in.getDouble(); 
+        resumedNanos = in.getLong(); 
+        
+        iterations = new double[in.getInt()]; 
+        Checkpoint.getDoubles(in, iterations, iterations.length); 
+        int count = in.getInt(); 
+        if (count != generators.size()) {
+            throw new IllegalArgumentException("The checkpoint has " + count + " random streams, but the swarm has " + generators.size() 
+                    + ". Is it running in the same mode with the same number of threads?"); 
+        }
+        for (int g = 0; g < count; g++) {
+            generators.get(g).restore(in); 
+        }
+        
+        Checkpoint.getDoubles(in, state.position, state.position.length); 
+        Checkpoint.getDoubles(in, state.velocity, state.velocity.length); 
+        Checkpoint.getDoubles(in, state.pbestPosition, state.pbestPosition.length); 
+        Checkpoint.getDoubles(in, state.pbest, state.size); 
+        
+        topology.ensureCapacity(capacity); 
+        Checkpoint.getInts(in, topology.offsets, neighborhoods + 1); 
+        Checkpoint.getInts(in, topology.indices, members); 
+        topology.buildMemberships(); 
+        Checkpoint.getInts(in, nbest.best, neighborhoods); 
+        
+        int rewiringBytes = in.getInt(); 
+        if (rewiringBytes > 0) {
+            if (rewiring == null) {
+                throw new IllegalArgumentException("The checkpoint was taken with a rewiring, but the swarm has none"); 
             }
-                       
+            rewiring.restoreState(in.slice(in.position(), rewiringBytes)); 
+            in.position(in.position() + rewiringBytes); 
+        }
+        
+        int cacheBytes = in.getInt(); 
+        if (cacheBytes > 0 && !(evaluator instanceof CachingEvaluator)) {
+            throw new IllegalArgumentException("The checkpoint was taken with an evaluation cache, but the swarm has none"); 
+        }
+        if (evaluator instanceof CachingEvaluator) {
+            //a cache that was not checkpointed starts empty, as it did in the checkpointed run 
+            CachingEvaluator cache = (CachingEvaluator) evaluator; 
+            cache.clear(); 
+            if (cacheBytes > 0) {
+                cache.restoreState(in.slice(in.position(), cacheBytes)); 
             }
+            countedMisses = cache.getMisses(); 
         }
+        resumed = true; 
+    }
+    
+    /**
+     * Makes this swarm an island of an island model, which exchanges particles with the other islands while the swarm runs. 
+     * 
+     * @param island is the island of this swarm, or null to run on its own. 
+     * @param migrationInterval is the number of iterations between two migrations. 
+     */
+    void setIsland(Island island, int migrationInterval) {
+        this.island = island; 
+        this.migrationInterval = Math.max(1, migrationInterval); 
+    }
+    
+    /**
+     * Finds the particle with the best personal best in the swarm. 
+     * 
+     * @return the index of the best particle. 
+     */
+    public int bestParticle() {
+        int best = 0; 
+        for (int p = 1; p < allParticles.size(); p++) {
+            if (state.pbest[p] < state.pbest[best]) {
+                best = p; 
+            }
+        }
+        return best; 
+    }
+    
+    /**
+     * Replaces the particle with the worst personal best by a particle from elsewhere, if the new one is better. The replaced particle moves to the 
+     * new particle's position and takes it as its personal best, but keeps its velocity. Since the personal best only gets better, the neighborhoods are told 
+     * about it like about any other improvement. This must be called on the thread running the swarm, or while it is not running. 
+     * 
+     * @param position holds the position of the new particle. 
+     * @param offset is the index in position at which the new particle's coordinates start. 
+     * @param value is the value of the function at that position. 
+     * @return whether or not a particle was replaced. 
+     */
+    public boolean replaceWorst(double[] position, int offset, double value) {
+        int worst = 0; 
+        for (int p = 1; p < allParticles.size(); p++) {
+            if (state.pbest[p] > state.pbest[worst]) {
+                worst = p; 
+            }
+        }
+        if (value >= state.pbest[worst]) {
+            return false; 
+        }
+        System.arraycopy(position, offset, state.position, state.offset(worst), state.dimensions); 
+        System.arraycopy(position, offset, state.pbestPosition, state.offset(worst), state.dimensions); 
+        state.pbest[worst] = value; 
+        state.value[worst] = value; 
+        allParticles.get(worst).notifyNeighborhoods(); 
+        return true; 
+    }
+    
+    /**
+     * Getter method for the master seed. 
+     * @return the seed every random number used by the swarm is derived from. 
+     */
+    public long getSeed() {
+        return seed; 
+    }
+    
+    /**
+     * Getter method for the reason the last run stopped. 
+     * @return the criterion that stopped the last run. 
+     */
+    public StopReason getStopReason() {
+        return stopReason; 
+    }
+    
+    /**
+     * Getter method for the number of function evaluations used by the last run. Positions whose value was found in the evaluation cache are not counted. 
+     * @return the number of evaluations. 
+     */
+    public long getEvaluations() {
+        return evaluations; 
+    }
+    
+    /**
+     * Getter method for a particle in the swarm. 
+     * 
+     * @param index is the index of the particle. 
+     * @return the particle at that index. 
+     */
+    public Particle getParticle(int index) {
+        return allParticles.get(index); 
+    }
+    
+    /**
+     * Getter method for the number of particles. 
+     * @return the number of particles in the swarm. 
+     */
+    public int size() {
+        return allParticles.size(); 
+    }
+    
+    /**
+     * Getter method for the number of dimensions. 
+     * @return the number of dimensions of the function being solved. 
+     */
+    public int getDimensions() {
+        return state.dimensions; 
+    }
+    
+    /**
+     * Getter method for the best solutions found during the run. 
+     * @return the best solution found in the swarm at every 1000 iterations. 
+     */
+    public double[] getIterations() {
+        return iterations; 
+    }
+    
+    /**
+     * A contiguous range of particles that is moved and committed by one thread in synchronous mode. 
+     * Each range has its own random stream, so the random numbers a particle gets do not depend on how the threads are scheduled. 
+     */
+    private class ParticleRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L; 
         
+        private final int from; 
+        private final int to; 
+        private final RandomStream rand; 
         
-        /**
-         * Method creates random neighborhoods of size 5 for each particle by choosing particles from the swarm randomly and without repetition. 
-         * For each particle, a particle's neighborhood is recreated in the same way with a probability of 0.2. 
-         */
-        public void randomN() {
-        Random rand = new Random(); 
+        //whether this task commits personal bests instead of moving the particles
+        boolean commit; 
         
-        for (int i = 0; i < allParticles.size(); i++) {
-            Particle particle = allParticles.get(i); 
-            particle.assignN(particle); //adds current particle to the neighborhood. 
-            int count = 1; 
+        //filled with whether each particle's personal best improved during the commit phase
+        boolean[] improved; 
         
-            while (count < 5) { //creates neighborhood of size 5 (including current particle). 
-                int num = rand.nextInt(allParticles.size()-1); 
-                double probability = rand.nextDouble(); 
-                
-                //if the particle selected isn't already part of this particle's neighborhood, or if the probability of it being included is less than 0.2, 
-                //the particle selected should be included in the neighborhood. 
-                if (particle.nContains(allParticles.get(num)) || (probability < 0.2)) { 
-                    num = rand.nextInt(allParticles.size()-1); 
-                } 
-                particle.assignN(allParticles.get(num)); 
-                count++; 
-            }    
+        ParticleRange(int from, int to, RandomStream rand) {
+            this.from = from; 
+            this.to = to; 
+            this.rand = rand; 
+        }
+        
+        protected void compute() {
+            for (int p = from; p < to; p++) {
+                Particle particle = allParticles.get(p); 
+                if (commit) {
+                    improved[p] = particle.commitPBest(state.value[p]); 
+                } else {
+                    particle.move(rand); 
+                }
+            }
         }
-    } 
     }
+}
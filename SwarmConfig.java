@@ -0,0 +1,387 @@
+import java.util.Random;
+
+/**
+ * SwarmConfig class that holds everything needed to create a swarm: the function, the topology, the number of particles and dimensions,
+ * the coefficients of the velocity update, how the particles are updated, the seed and the stopping criteria.
+ * A configuration cannot be changed once it is built, so one configuration can be used for many swarms. It is built with a Builder:
+ *
+ *     SwarmConfig config = SwarmConfig.builder().function("ack").topology("vn").particles(49).dimensions(100).seed(1).build();
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class SwarmConfig {
+
+    //the short names (or class name) of the function and the topology
+    private final String function;
+    private final String topology;
+
+    //the number of particles, and the number of dimensions of the function
+    private final int particles;
+    private final int dimensions;
+
+    //the personal best and neighborhood best acceleration coefficients, and the constriction factor
+    private final double phi1;
+    private final double phi2;
+    private final double constrictionFactor;
+
+    //the rule that moves the particles, null for the constricted update with the coefficients above
+    private final UpdateStrategy strategy;
+
+    //what happens when a particle leaves the search space
+    private final BoundaryPolicy boundary;
+
+    //the largest absolute velocity, one value for every dimension or one value per dimension, null for no limit
+    private final double[] velocityLimit;
+
+    //the most function values cached for expensive functions, 0 for no cache, and the grid size positions are quantized to for the cache
+    private final int cacheEntries;
+    private final double cacheTolerance;
+
+    //whether the particles are updated synchronously in parallel, and with how many threads
+    private final boolean synchronous;
+    private final int threads;
+
+    //the seed for all random numbers used by the swarm
+    private final long seed;
+
+    //decides when a run stops
+    private final StoppingCriteria criteria;
+
+    private SwarmConfig(Builder builder) {
+        function = builder.function;
+        topology = builder.topology;
+        particles = builder.particles;
+        dimensions = builder.dimensions;
+        phi1 = builder.phi1;
+        phi2 = builder.phi2;
+        constrictionFactor = builder.constrictionFactor;
+        strategy = builder.strategy;
+        boundary = builder.boundary;
+        velocityLimit = builder.velocityLimit;
+        cacheEntries = builder.cacheEntries;
+        cacheTolerance = builder.cacheTolerance;
+        synchronous = builder.synchronous;
+        threads = builder.threads;
+        seed = builder.seed;
+        criteria = builder.criteria.copy();
+    }
+
+    /**
+     * Creates a builder with the defaults of the original experiments: 30 particles in 30 dimensions, phi1 and phi2 of 2.05,
+     * a constriction factor of 0.7298, the constricted update without bounds or velocity limit, asynchronous updates and 10000 iterations. The function and topology have no default.
+     *
+     * @return a new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Getter method for the function.
+     * @return the short name or class name of the function.
+     */
+    public String getFunction() {
+        return function;
+    }
+
+    /**
+     * Getter method for the topology.
+     * @return the short name of the topology.
+     */
+    public String getTopology() {
+        return topology;
+    }
+
+    /**
+     * Getter method for the number of particles.
+     * @return the number of particles in the swarm.
+     */
+    public int getParticles() {
+        return particles;
+    }
+
+    /**
+     * Getter method for the number of dimensions.
+     * @return the number of dimensions of the function.
+     */
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Getter method for the personal best acceleration coefficient.
+     * @return phi1.
+     */
+    public double getPhi1() {
+        return phi1;
+    }
+
+    /**
+     * Getter method for the neighborhood best acceleration coefficient.
+     * @return phi2.
+     */
+    public double getPhi2() {
+        return phi2;
+    }
+
+    /**
+     * Getter method for the constriction factor.
+     * @return the constriction factor.
+     */
+    public double getConstrictionFactor() {
+        return constrictionFactor;
+    }
+
+    /**
+     * Getter method for the update strategy.
+     * @return the rule that moves the particles, which is the constricted update with phi1, phi2 and the constriction factor unless another one was set.
+     */
+    public UpdateStrategy getStrategy() {
+        return strategy != null ? strategy : new ConstrictionUpdate(phi1, phi2, constrictionFactor);
+    }
+
+    /**
+     * Getter method for the boundary policy.
+     * @return what happens when a particle leaves the search space.
+     */
+    public BoundaryPolicy getBoundary() {
+        return boundary;
+    }
+
+    /**
+     * Getter method for the velocity limit.
+     * @return a copy of the largest absolute velocity, one value for every dimension or one value per dimension, or null for no limit.
+     */
+    public double[] getVelocityLimit() {
+        return velocityLimit == null ? null : velocityLimit.clone();
+    }
+
+    /**
+     * Getter method for the size of the evaluation cache.
+     * @return the most function values cached, or 0 if nothing is cached.
+     */
+    public int getCacheEntries() {
+        return cacheEntries;
+    }
+
+    /**
+     * Getter method for the tolerance of the evaluation cache.
+     * @return the size of the grid cells positions are quantized to, 0 if only equal positions share a value.
+     */
+    public double getCacheTolerance() {
+        return cacheTolerance;
+    }
+
+    /**
+     * Getter method for the update mode.
+     * @return whether the particles are updated synchronously in parallel.
+     */
+    public boolean isSynchronous() {
+        return synchronous;
+    }
+
+    /**
+     * Getter method for the number of threads.
+     * @return the number of threads used in synchronous mode.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Getter method for the seed.
+     * @return the seed for all random numbers used by the swarm.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Getter method for the stopping criteria.
+     * @return a copy of the criteria that decide when a run stops, which can be changed without changing the configuration.
+     */
+    public StoppingCriteria getCriteria() {
+        return criteria.copy();
+    }
+
+    /**
+     * Builder for a configuration. Every setter returns the builder, so calls can be chained.
+     */
+    public static class Builder {
+        private String function;
+        private String topology;
+        private int particles = 30;
+        private int dimensions = 30;
+        private double phi1 = 2.05;
+        private double phi2 = 2.05;
+        private double constrictionFactor = 0.7298;
+        private UpdateStrategy strategy;
+        private BoundaryPolicy boundary = BoundaryPolicy.NONE;
+        private double[] velocityLimit;
+        private int cacheEntries;
+        private double cacheTolerance;
+        private boolean synchronous;
+        private int threads = 1;
+        private long seed = new Random().nextLong();
+        private StoppingCriteria criteria = new StoppingCriteria();
+
+        private Builder() {
+        }
+
+        /**
+         * @param function is the short name (rok, ras or ack) or class name of the function.
+         * @return this builder.
+         */
+        public Builder function(String function) {
+            this.function = function;
+            return this;
+        }
+
+        /**
+         * @param topology is the short name of the topology: gl, ri, vn or ra.
+         * @return this builder.
+         */
+        public Builder topology(String topology) {
+            this.topology = topology;
+            return this;
+        }
+
+        /**
+         * @param particles is the number of particles in the swarm.
+         * @return this builder.
+         */
+        public Builder particles(int particles) {
+            this.particles = particles;
+            return this;
+        }
+
+        /**
+         * @param dimensions is the number of dimensions of the function.
+         * @return this builder.
+         */
+        public Builder dimensions(int dimensions) {
+            this.dimensions = dimensions;
+            return this;
+        }
+
+        /**
+         * @param phi1 is the personal best acceleration coefficient.
+         * @param phi2 is the neighborhood best acceleration coefficient.
+         * @return this builder.
+         */
+        public Builder phi(double phi1, double phi2) {
+            this.phi1 = phi1;
+            this.phi2 = phi2;
+            return this;
+        }
+
+        /**
+         * @param constrictionFactor is the constriction factor.
+         * @return this builder.
+         */
+        public Builder constrictionFactor(double constrictionFactor) {
+            this.constrictionFactor = constrictionFactor;
+            return this;
+        }
+
+        /**
+         * @param strategy is the rule that moves the particles. Without it, the constricted update with the coefficients of this builder is used.
+         * @return this builder.
+         */
+        public Builder strategy(UpdateStrategy strategy) {
+            this.strategy = strategy;
+            return this;
+        }
+
+        /**
+         * @param boundary is what happens when a particle leaves the search space given by the bounds of the function.
+         * @return this builder.
+         */
+        public Builder boundary(BoundaryPolicy boundary) {
+            this.boundary = boundary;
+            return this;
+        }
+
+        /**
+         * @param velocityLimit is the largest absolute velocity, either one value for every dimension or one value per dimension.
+         * @return this builder.
+         */
+        public Builder velocityLimit(double... velocityLimit) {
+            this.velocityLimit = velocityLimit.clone();
+            return this;
+        }
+
+        /**
+         * @param entries is the most function values cached, see CachingEvaluator. The cache is only used if the function is expensive.
+         * @param tolerance is the size of the grid cells positions are quantized to, or 0 to only reuse the values of equal positions.
+         * @return this builder.
+         */
+        public Builder cache(int entries, double tolerance) {
+            this.cacheEntries = entries;
+            this.cacheTolerance = tolerance;
+            return this;
+        }
+
+        /**
+         * @param synchronous is whether the particles are updated synchronously in parallel instead of one after another.
+         * @return this builder.
+         */
+        public Builder synchronous(boolean synchronous) {
+            this.synchronous = synchronous;
+            return this;
+        }
+
+        /**
+         * @param threads is the number of threads used in synchronous mode.
+         * @return this builder.
+         */
+        public Builder threads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * @param seed is the seed for all random numbers used by the swarm. Without it, a random seed is used.
+         * @return this builder.
+         */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * @param criteria decide when a run stops. They are copied when the configuration is built.
+         * @return this builder.
+         */
+        public Builder criteria(StoppingCriteria criteria) {
+            this.criteria = criteria;
+            return this;
+        }
+
+        /**
+         * Builds the configuration.
+         *
+         * @return the configuration.
+         * @throws IllegalArgumentException if the function, topology or boundary policy is missing, a size is not positive,
+         *         the velocity limit does not have one value or one value per dimension, or the cache settings are negative.
+         */
+        public SwarmConfig build() {
+            if (function == null || topology == null) {
+                throw new IllegalArgumentException("A swarm needs a function and a topology");
+            }
+            if (particles < 1 || dimensions < 1 || threads < 1) {
+                throw new IllegalArgumentException("The number of particles, dimensions and threads must be positive");
+            }
+            if (boundary == null) {
+                throw new IllegalArgumentException("A swarm needs a boundary policy, use NONE for unbounded particles");
+            }
+            if (velocityLimit != null && velocityLimit.length != 1 && velocityLimit.length != dimensions) {
+                throw new IllegalArgumentException("The velocity limit needs one value or one value per dimension");
+            }
+            if (cacheEntries < 0 || !(cacheTolerance >= 0)) {
+                throw new IllegalArgumentException("The cache size and tolerance must not be negative");
+            }
+            return new SwarmConfig(this);
+        }
+    }
+}
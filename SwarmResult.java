@@ -0,0 +1,100 @@
+/**
+ * SwarmResult class, a snapshot of the outcome of a run: the best solution found, where it was found, how far the run got and why it stopped.
+ * It copies everything it holds, so it does not change when the swarm runs on or is reset.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class SwarmResult {
+
+    //the best personal best in the swarm, and the position it was found at
+    private final double bestValue;
+    private final double[] bestPosition;
+
+    //the best solution at every 1000 iterations, 0 for the ones the run has not reached yet
+    private final double[] bestPerThousand;
+
+    //the number of iterations and function evaluations so far
+    private final int iteration;
+    private final long evaluations;
+
+    //why the run stopped, or null if it has not stopped yet
+    private final StopReason stopReason;
+
+    //the seed of the run
+    private final long seed;
+
+    /**
+     * Constructor for a result, which takes a snapshot of the swarm.
+     *
+     * @param swarm is the swarm.
+     */
+    SwarmResult(Swarm swarm) {
+        Particle best = swarm.getParticle(swarm.bestParticle());
+        bestValue = best.getPBest();
+        bestPosition = new double[swarm.getDimensions()];
+        for (int i = 0; i < bestPosition.length; i++) {
+            bestPosition[i] = best.getPBestPosition(i);
+        }
+        bestPerThousand = swarm.getIterations() == null ? new double[0] : swarm.getIterations().clone();
+        iteration = swarm.getIteration();
+        evaluations = swarm.getEvaluations();
+        stopReason = swarm.isRunning() ? null : swarm.getStopReason();
+        seed = swarm.getSeed();
+    }
+
+    /**
+     * Getter method for the best solution.
+     * @return the best value of the function found in the swarm.
+     */
+    public double getBestValue() {
+        return bestValue;
+    }
+
+    /**
+     * Getter method for the best position.
+     * @return a copy of the position at which the best solution was found.
+     */
+    public double[] getBestPosition() {
+        return bestPosition.clone();
+    }
+
+    /**
+     * Getter method for the best solution at every 1000 iterations.
+     * @return a copy of the best solutions, 0 for the iterations the run has not reached yet.
+     */
+    public double[] getBestPerThousand() {
+        return bestPerThousand.clone();
+    }
+
+    /**
+     * Getter method for the iteration.
+     * @return the number of iterations run.
+     */
+    public int getIteration() {
+        return iteration;
+    }
+
+    /**
+     * Getter method for the number of evaluations.
+     * @return the number of function evaluations used.
+     */
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    /**
+     * Getter method for the reason the run stopped.
+     * @return the criterion that stopped the run, or null if it is still going on.
+     */
+    public StopReason getStopReason() {
+        return stopReason;
+    }
+
+    /**
+     * Getter method for the seed.
+     * @return the seed that repeats the run.
+     */
+    public long getSeed() {
+        return seed;
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * SwarmRunner class that runs a swarm created from a SwarmConfig, for embedding the optimizer in other programs.
+ * It can run the swarm to the end, a given number of iterations at a time or one iteration at a time, and reports SwarmResult snapshots.
+ * A runner can be reset and run again any number of times. Resetting reuses the swarm's arrays, particles and threads,
+ * so a pooled runner stays warmed up and does not allocate a new swarm per request. A runner must only be used by one thread at a time.
+ *
+ *     SwarmRunner runner = new SwarmRunner(SwarmConfig.builder().function("ras").topology("ri").dimensions(50).build());
+ *     SwarmResult result = runner.run();
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class SwarmRunner {
+
+    private final SwarmConfig config;
+    private final Swarm swarm;
+
+    /**
+     * Constructor for a runner, which creates the swarm but does not run it.
+     *
+     * @param config is the configuration of the swarm.
+     */
+    public SwarmRunner(SwarmConfig config) {
+        this.config = config;
+        this.swarm = new Swarm(config);
+    }
+
+    /**
+     * Runs one iteration, unless the run has already stopped.
+     *
+     * @return whether the run goes on after this iteration.
+     */
+    public boolean step() {
+        if (isFinished()) {
+            return false;
+        }
+        return swarm.step();
+    }
+
+    /**
+     * Runs up to the given number of iterations, fewer if the stopping criteria are met first.
+     *
+     * @param iterations is the largest number of iterations run.
+     * @return the result after these iterations.
+     */
+    public SwarmResult run(int iterations) {
+        for (int i = 0; i < iterations && step(); i++) {
+            //every step is one iteration
+        }
+        return result();
+    }
+
+    /**
+     * Runs until the stopping criteria are met.
+     *
+     * @return the result of the run.
+     */
+    public SwarmResult run() {
+        while (step()) {
+            //every step is one iteration
+        }
+        return result();
+    }
+
+    /**
+     * Takes a snapshot of the current state of the run.
+     *
+     * @return the result so far.
+     */
+    public SwarmResult result() {
+        return new SwarmResult(swarm);
+    }
+
+    /**
+     * Getter method for whether the run has stopped.
+     * @return whether the stopping criteria were met, after which the runner has to be reset to run again.
+     */
+    public boolean isFinished() {
+        return !swarm.isRunning() && swarm.getStopReason() != null;
+    }
+
+    /**
+     * Resets the swarm to run again from the start with the seed of the configuration, which repeats the first run exactly.
+     */
+    public void reset() {
+        swarm.reset(config.getSeed());
+    }
+
+    /**
+     * Resets the swarm to run again from the start with a new seed.
+     *
+     * @param seed is the seed for all random numbers of the next run.
+     */
+    public void reset(long seed) {
+        swarm.reset(seed);
+    }
+
+    /**
+     * Getter method for the configuration.
+     * @return the configuration of the swarm.
+     */
+    public SwarmConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Getter method for the swarm, for settings that are not part of the configuration, such as telemetry, checkpoints, rewiring or the evaluator.
+     * @return the swarm that is run.
+     */
+    public Swarm getSwarm() {
+        return swarm;
+    }
+}
@@ -0,0 +1,91 @@
+import java.util.Arrays;
+
+/**
+ * SwarmState class that stores the position, velocity and personal best of every particle in the swarm.
+ * Instead of each particle keeping its own lists, the vectors of all particles are kept in contiguous primitive arrays
+ * (particle-major, so the coordinates of particle p start at index p * dimensions). This keeps the iteration loop free of boxing and allocation.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class SwarmState {
+
+    //the number of particles in the swarm
+    final int size;
+
+    //the number of dimensions of each vector, which is also the stride between two particles in the arrays
+    final int dimensions;
+
+    //the position vectors of all particles
+    final double[] position;
+
+    //the velocity vectors of all particles
+    final double[] velocity;
+
+    //the positions at which each particle found its personal best
+    final double[] pbestPosition;
+
+    //the personal best value of each particle
+    final double[] pbest;
+
+    //the value of the function at each particle's current position, as found in the last iteration
+    final double[] value;
+
+    //the lower and upper bound of the search space in each dimension, used by the BoundaryPolicy. Unbounded by default.
+    final double[] lower;
+    final double[] upper;
+
+    //the largest absolute velocity in each dimension, used by the UpdateStrategy. Unlimited by default.
+    final double[] vmax;
+
+    //how far the run has got, from 0 at the first iteration towards 1 at the last, for strategies whose coefficients change over the run
+    double progress;
+
+    /**
+     * Constructor for the swarm state. Allocates all the arrays once, they are reused for the whole run.
+     *
+     * @param size is the number of particles in the swarm.
+     * @param dimensions is the number of dimensions of the function being evaluated.
+     */
+    public SwarmState(int size, int dimensions) {
+        this.size = size;
+        this.dimensions = dimensions;
+        position = new double[size * dimensions];
+        velocity = new double[size * dimensions];
+        pbestPosition = new double[size * dimensions];
+        pbest = new double[size];
+        value = new double[size];
+        Arrays.fill(pbest, Double.MAX_VALUE);
+        lower = new double[dimensions];
+        upper = new double[dimensions];
+        vmax = new double[dimensions];
+        Arrays.fill(lower, Double.NEGATIVE_INFINITY);
+        Arrays.fill(upper, Double.POSITIVE_INFINITY);
+        Arrays.fill(vmax, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Returns the index in the position, velocity and pbestPosition arrays at which the given particle's vector starts.
+     *
+     * @param particle is the index of the particle in the swarm.
+     * @return the offset of the particle's first coordinate.
+     */
+    public int offset(int particle) {
+        return particle * dimensions;
+    }
+
+    /**
+     * Getter method for the number of particles.
+     * @return the number of particles in the swarm.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Getter method for the number of dimensions.
+     * @return the number of dimensions of each vector.
+     */
+    public int getDimensions() {
+        return dimensions;
+    }
+}
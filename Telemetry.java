@@ -0,0 +1,163 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Telemetry class that passes convergence samples from the swarm to its listeners without ever stalling the swarm.
+ * Samples are written into a bounded ring buffer of preallocated primitive arrays by the thread running the swarm, and a background thread
+ * takes them out and hands them to the listeners. If the listeners fall so far behind that the buffer is full, new samples are dropped and counted
+ * instead of waiting. There must only be one thread recording samples.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class Telemetry implements AutoCloseable {
+
+    //the listeners the samples are handed to
+    private final List<ConvergenceListener> listeners;
+
+    //the ring buffer, one array per value, with a power of two capacity
+    private final long[] iteration;
+    private final double[] globalBest;
+    private final double[] nbestSpread;
+    private final double[] meanVelocity;
+    private final double[] diversity;
+    private final long[] iterationNanos;
+    private final int mask;
+
+    //the number of samples recorded and the number taken out by the background thread. Only the recording thread writes tail and only the background thread writes head.
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    //the number of samples dropped because the buffer was full
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final Thread drainer;
+    private volatile boolean closed;
+
+    /**
+     * Constructor for the telemetry, which starts the background thread.
+     *
+     * @param capacity is the number of samples the buffer can hold, rounded up to a power of two.
+     * @param listeners are the listeners the samples are handed to.
+     */
+    public Telemetry(int capacity, ConvergenceListener... listeners) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+        this.listeners = new ArrayList<ConvergenceListener>(List.of(listeners));
+        iteration = new long[size];
+        globalBest = new double[size];
+        nbestSpread = new double[size];
+        meanVelocity = new double[size];
+        diversity = new double[size];
+        iterationNanos = new long[size];
+        mask = size - 1;
+
+        drainer = new Thread(this::drain, "telemetry");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    /**
+     * Records a sample. This never blocks: if the buffer is full the sample is dropped.
+     *
+     * @param iter is the iteration the sample was taken after.
+     * @param best is the best personal best in the swarm.
+     * @param spread is the difference between the worst and the best neighborhood best.
+     * @param velocity is the mean length of the velocity vectors.
+     * @param swarmDiversity is the mean distance of the particles to the centre of the swarm.
+     * @param nanos is how long the iteration took in nanoseconds.
+     * @return whether or not the sample was recorded.
+     */
+    public boolean record(long iter, double best, double spread, double velocity, double swarmDiversity, long nanos) {
+        long t = tail.get();
+        if (t - head.get() > mask) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        int slot = (int) (t & mask);
+        iteration[slot] = iter;
+        globalBest[slot] = best;
+        nbestSpread[slot] = spread;
+        meanVelocity[slot] = velocity;
+        diversity[slot] = swarmDiversity;
+        iterationNanos[slot] = nanos;
+
+        //publishes the slot to the background thread
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Runs on the background thread: takes samples out of the buffer and hands them to the listeners, flushing them whenever the buffer is empty.
+     */
+    private void drain() {
+        boolean written = false;
+        while (true) {
+            long h = head.get();
+            if (h == tail.get()) {
+                if (written) {
+                    forEachListener(-1);
+                    written = false;
+                }
+                if (closed && h == tail.get()) {
+                    return;
+                }
+                LockSupport.parkNanos(1000000L);
+                continue;
+            }
+            forEachListener((int) (h & mask));
+            written = true;
+
+            //frees the slot for the recording thread
+            head.lazySet(h + 1);
+        }
+    }
+
+    /**
+     * Hands one sample to every listener, or flushes every listener.
+     *
+     * @param slot is the slot of the sample, or -1 to flush.
+     */
+    private void forEachListener(int slot) {
+        for (ConvergenceListener listener : listeners) {
+            try {
+                if (slot < 0) {
+                    listener.flush();
+                } else {
+                    listener.onSample(iteration[slot], globalBest[slot], nbestSpread[slot], meanVelocity[slot], diversity[slot], iterationNanos[slot]);
+                }
+            } catch (IOException e) {
+                System.err.println("Telemetry listener failed: " + e);
+            }
+        }
+    }
+
+    /**
+     * Getter method for the number of dropped samples.
+     * @return the number of samples dropped because the buffer was full.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Waits until every recorded sample has been handed to the listeners, then closes the listeners.
+     */
+    public void close() {
+        closed = true;
+        LockSupport.unpark(drainer);
+        try {
+            drainer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (ConvergenceListener listener : listeners) {
+            try {
+                listener.close();
+            } catch (IOException e) {
+                System.err.println("Telemetry listener failed: " + e);
+            }
+        }
+    }
+}
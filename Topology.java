@@ -0,0 +1,287 @@
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Topology class that stores which particles are in which neighborhood, as compressed sparse rows of particle indices.
+ * The members of neighborhood n are indices[offsets[n]] up to indices[offsets[n+1]-1], so scanning a neighborhood reads one contiguous block of ints.
+ * Neighborhood p belongs to particle p (and contains p itself as its first member), except for the global topology, where a single neighborhood is shared by the whole swarm.
+ * The reverse rows, which list the neighborhoods each particle is a member of, are kept as well, since those are the neighborhoods
+ * that have to be told when the particle's personal best improves.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class Topology {
+
+    //the number of particles
+    final int size;
+
+    //the members of each neighborhood. The indices array can be longer than the number of members, to leave room for dynamic topologies that add members.
+    final int[] offsets;
+    int[] indices;
+
+    //the neighborhood each particle takes its neighborhood best from
+    final int[] neighborhoodOf;
+
+    //the neighborhoods each particle is a member of
+    final int[] memberOffsets;
+    int[] memberOf;
+
+    /**
+     * Constructor for a topology from its rows. The reverse rows are computed from them.
+     *
+     * @param size is the number of particles.
+     * @param offsets is where the members of each neighborhood start in indices, with one extra entry for the end of the last neighborhood.
+     * @param indices are the members of all neighborhoods.
+     * @param neighborhoodOf is the neighborhood of each particle.
+     */
+    public Topology(int size, int[] offsets, int[] indices, int[] neighborhoodOf) {
+        this.size = size;
+        this.offsets = offsets;
+        this.indices = indices;
+        this.neighborhoodOf = neighborhoodOf;
+        memberOffsets = new int[size + 1];
+        memberOf = new int[indices.length];
+        buildMemberships();
+    }
+
+    /**
+     * Computes the reverse rows (the neighborhoods each particle is a member of) from the neighborhood rows, with a counting sort.
+     * This writes into the existing arrays and does not allocate, so it can be redone after the neighborhoods change.
+     */
+    void buildMemberships() {
+        int neighborhoods = offsets.length - 1;
+        Arrays.fill(memberOffsets, 0);
+        for (int j = 0; j < offsets[neighborhoods]; j++) {
+            memberOffsets[indices[j] + 1]++;
+        }
+        for (int p = 0; p < size; p++) {
+            memberOffsets[p + 1] += memberOffsets[p];
+        }
+        //memberOffsets[p] is used as the next free slot of particle p while filling, and is shifted back afterwards
+        for (int n = 0; n < neighborhoods; n++) {
+            for (int j = offsets[n]; j < offsets[n + 1]; j++) {
+                memberOf[memberOffsets[indices[j]]++] = n;
+            }
+        }
+        for (int p = size; p > 0; p--) {
+            memberOffsets[p] = memberOffsets[p - 1];
+        }
+        memberOffsets[0] = 0;
+    }
+
+    /**
+     * Makes room for at least the given number of members over all neighborhoods. Dynamic topologies that add members call this once up front,
+     * so that changing the neighborhoods later does not allocate.
+     *
+     * @param capacity is the total number of members to make room for.
+     */
+    public void ensureCapacity(int capacity) {
+        if (indices.length < capacity) {
+            indices = Arrays.copyOf(indices, capacity);
+            memberOf = new int[capacity];
+            buildMemberships();
+        }
+    }
+
+    /**
+     * Copies the neighborhoods of another topology of the same kind and size into this one, for example to undo the changes of a dynamic topology.
+     * This only allocates if the other topology has more members than this one has room for.
+     *
+     * @param other is the topology copied.
+     */
+    void copyFrom(Topology other) {
+        int members = other.offsets[other.offsets.length - 1];
+        ensureCapacity(members);
+        System.arraycopy(other.offsets, 0, offsets, 0, offsets.length);
+        System.arraycopy(other.indices, 0, indices, 0, members);
+        buildMemberships();
+    }
+
+    /**
+     * Creates the topology with the given short name: gl (global), ri (ring), vn (von Neumann) or ra (random).
+     *
+     * @param name is the short name of the topology.
+     * @param size is the number of particles.
+     * @param rand is the random number generator used for the random topology.
+     * @return the topology.
+     */
+    public static Topology forName(String name, int size, RandomGenerator rand) {
+        if (name.equals("gl")) {
+            return global(size);
+        } else if (name.equals("ri")) {
+            return ring(size, 1);
+        } else if (name.equals("vn")) {
+            return vonNeumann(size);
+        } else if (name.equals("ra")) {
+            return random(size, 4, rand);
+        }
+        throw new IllegalArgumentException("Unknown topology " + name);
+    }
+
+    /**
+     * Creates the global topology, in which all particles share one neighborhood that contains the whole swarm.
+     *
+     * @param size is the number of particles.
+     * @return the topology.
+     */
+    public static Topology global(int size) {
+        int[] indices = new int[size];
+        for (int p = 0; p < size; p++) {
+            indices[p] = p;
+        }
+        return new Topology(size, new int[] {0, size}, indices, new int[size]);
+    }
+
+    /**
+     * Creates the ring topology. The particles are imagined to be in a ring and the neighborhood of each particle is the particle itself and the particles up to
+     * radius positions to its left and right, wrapping around at the ends.
+     *
+     * @param size is the number of particles.
+     * @param radius is the number of neighbors on each side.
+     * @return the topology.
+     */
+    public static Topology ring(int size, int radius) {
+        Builder builder = new Builder(size, 2 * radius + 1);
+        for (int p = 0; p < size; p++) {
+            builder.add(p);
+            for (int r = 1; r <= radius; r++) {
+                builder.add(Math.floorMod(p - r, size));
+                builder.add(Math.floorMod(p + r, size));
+            }
+            builder.next();
+        }
+        return builder.build();
+    }
+
+    /**
+     * Creates the von Neumann topology. The particles are imagined to be in a grid that wraps around in both directions, and the neighborhood of each particle is
+     * the particle itself and the particles above, below, to the left and to the right of it. The grid is the factorisation of the swarm size closest to a square,
+     * so 16, 30 and 49 particles give grids of 4x4, 5x6 and 7x7. A prime number of particles gives a single row, which is the same as a ring.
+     *
+     * @param size is the number of particles.
+     * @return the topology.
+     */
+    public static Topology vonNeumann(int size) {
+        int rows = (int) Math.sqrt(size);
+        while (rows > 1 && size % rows != 0) {
+            rows--;
+        }
+        rows = Math.max(rows, 1);
+        int cols = size / rows;
+
+        Builder builder = new Builder(size, 5);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                builder.add(i * cols + j);
+                builder.add(Math.floorMod(i - 1, rows) * cols + j); //top
+                builder.add(Math.floorMod(i + 1, rows) * cols + j); //bottom
+                builder.add(i * cols + Math.floorMod(j - 1, cols)); //left
+                builder.add(i * cols + Math.floorMod(j + 1, cols)); //right
+                builder.next();
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Creates a random topology. The neighborhood of each particle is the particle itself and k other particles chosen randomly and without repetition.
+     *
+     * @param size is the number of particles.
+     * @param k is the number of other particles in each neighborhood.
+     * @param rand is the random number generator.
+     * @return the topology.
+     */
+    public static Topology random(int size, int k, RandomGenerator rand) {
+        k = Math.min(k, size - 1);
+        Builder builder = new Builder(size, k + 1);
+        NeighborSampler sampler = new NeighborSampler(size);
+        for (int p = 0; p < size; p++) {
+            builder.add(p);
+            sampler.sample(p, k, rand, builder.indices, builder.count);
+            builder.count += k;
+            builder.next();
+        }
+        return builder.build();
+    }
+
+    /**
+     * Getter method for the number of neighborhoods.
+     * @return the number of neighborhoods, which is 1 for the global topology and the number of particles otherwise.
+     */
+    public int getNeighborhoods() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Getter method for the neighborhood a particle takes its neighborhood best from.
+     *
+     * @param particle is the index of the particle.
+     * @return the index of the particle's neighborhood.
+     */
+    public int neighborhoodOf(int particle) {
+        return neighborhoodOf[particle];
+    }
+
+    /**
+     * Getter method for the number of members of a neighborhood.
+     *
+     * @param neighborhood is the index of the neighborhood.
+     * @return the number of members, including the particle the neighborhood belongs to.
+     */
+    public int degree(int neighborhood) {
+        return offsets[neighborhood + 1] - offsets[neighborhood];
+    }
+
+    /**
+     * Checks if a particle is a member of a neighborhood.
+     *
+     * @param neighborhood is the index of the neighborhood.
+     * @param particle is the index of the particle.
+     * @return whether or not the particle is a member.
+     */
+    public boolean contains(int neighborhood, int particle) {
+        for (int j = offsets[neighborhood]; j < offsets[neighborhood + 1]; j++) {
+            if (indices[j] == particle) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds the rows of a topology in which every particle has its own neighborhood of at most maxDegree members, leaving out repeated members.
+     */
+    private static class Builder {
+        final int[] offsets;
+        final int[] indices;
+        int count;
+        int neighborhood;
+
+        Builder(int size, int maxDegree) {
+            offsets = new int[size + 1];
+            indices = new int[size * maxDegree];
+        }
+
+        void add(int particle) {
+            for (int j = offsets[neighborhood]; j < count; j++) {
+                if (indices[j] == particle) {
+                    return;
+                }
+            }
+            indices[count++] = particle;
+        }
+
+        void next() {
+            neighborhood++;
+            offsets[neighborhood] = count;
+        }
+
+        Topology build() {
+            int[] neighborhoodOf = new int[neighborhood];
+            for (int p = 0; p < neighborhood; p++) {
+                neighborhoodOf[p] = p;
+            }
+            return new Topology(neighborhood, offsets, Arrays.copyOf(indices, count), neighborhoodOf);
+        }
+    }
+}
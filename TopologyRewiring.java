@@ -0,0 +1,56 @@
+import java.nio.ByteBuffer;
+import java.util.random.RandomGenerator;
+
+/**
+ * TopologyRewiring interface for dynamic topologies, whose neighborhoods change while the swarm runs.
+ * The swarm calls rewire after every iteration. An implementation changes the members of neighborhoods in place in the arrays of the topology,
+ * then rebuilds the memberships with buildMemberships() and rescans the neighborhood best of every neighborhood it changed, so the cache stays correct.
+ * The first member of each neighborhood is the particle it belongs to, and implementations keep it that way.
+ * An implementation that keeps state between rewirings which changes the neighborhoods it makes also saves that state in checkpoints.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public interface TopologyRewiring {
+
+    /**
+     * Called after every iteration to change the neighborhoods.
+     *
+     * @param iteration is the iteration that just finished.
+     * @param topology is the topology of the swarm, which is changed in place.
+     * @param nbest is the neighborhood best cache, which has to be updated for every changed neighborhood.
+     * @param state holds the positions and personal bests of the particles.
+     * @param rand is the random number generator used for rewiring.
+     */
+    void rewire(int iteration, Topology topology, NeighborhoodBest nbest, SwarmState state, RandomGenerator rand);
+
+    /**
+     * Forgets the state kept between rewirings, when the swarm is reset to run again from the start.
+     */
+    default void reset() {
+    }
+
+    /**
+     * Returns the number of bytes saveState will write.
+     *
+     * @return the size of the state saved in a checkpoint, 0 by default.
+     */
+    default int stateBytes() {
+        return 0;
+    }
+
+    /**
+     * Writes the state kept between rewirings to a checkpoint.
+     *
+     * @param out is the buffer the state is written to.
+     */
+    default void saveState(ByteBuffer out) {
+    }
+
+    /**
+     * Reads the state written by saveState when a swarm is resumed from a checkpoint.
+     *
+     * @param in is the buffer the state is read from.
+     */
+    default void restoreState(ByteBuffer in) {
+    }
+}
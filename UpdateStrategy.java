@@ -0,0 +1,46 @@
+/**
+ * UpdateStrategy interface for the rule that moves a particle: how its new velocity and position are computed from its own state,
+ * its personal best and its neighborhood. The strategy is set once for the whole swarm, so the loop over the dimensions of each implementation
+ * only does the arithmetic of its own rule. Implementations work directly on the primitive arrays of SwarmState, hold no per-run state
+ * and are never changed, so one strategy can be shared by every particle and every swarm, even on different threads.
+ * The velocity limit of each dimension is in SwarmState.vmax, and the fraction of the run that has passed is in SwarmState.progress.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public interface UpdateStrategy {
+
+    /**
+     * Computes the new velocity and position of a particle. Bounds are handled afterwards by the swarm's BoundaryPolicy.
+     *
+     * @param state holds the vectors of every particle in the swarm.
+     * @param particle is the index of the particle that moves.
+     * @param topology is the topology of the swarm.
+     * @param neighborhood is the neighborhood the particle takes its neighborhood best from.
+     * @param nbest is the index of the best particle of that neighborhood.
+     * @param rand is the random stream of the calling thread.
+     */
+    void move(SwarmState state, int particle, Topology topology, int neighborhood, int nbest, RandomStream rand);
+
+    /**
+     * Finds the update strategy for a name given by the user: constriction, inertia, fips or barebones.
+     * The constriction and fips updates use the given coefficients, with phi1 + phi2 as the total acceleration of fips. The other two use their usual settings.
+     *
+     * @param name is the name of the strategy.
+     * @param phi1 is the personal best acceleration coefficient.
+     * @param phi2 is the neighborhood best acceleration coefficient.
+     * @param constrictionFactor is the constriction factor.
+     * @return the strategy.
+     */
+    static UpdateStrategy forName(String name, double phi1, double phi2, double constrictionFactor) {
+        if (name.equals("constriction")) {
+            return new ConstrictionUpdate(phi1, phi2, constrictionFactor);
+        } else if (name.equals("inertia")) {
+            return new InertiaUpdate();
+        } else if (name.equals("fips")) {
+            return new FipsUpdate(phi1 + phi2, constrictionFactor);
+        } else if (name.equals("barebones")) {
+            return new BareBonesUpdate();
+        }
+        throw new IllegalArgumentException("Unknown update strategy " + name);
+    }
+}
@@ -0,0 +1,143 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Benchmarks class with microbenchmarks for the hot paths of the swarm: updating a particle, finding the neighborhood best for every topology,
+ * evaluating every function at several dimensions, and whole runs for several swarm sizes.
+ * Every benchmark is warmed up before it is measured, and besides the time per operation it reports the bytes allocated per operation,
+ * so an allocation that sneaks into the iteration loop shows up as a non-zero B/op.
+ *
+ * Usage: java Benchmarks [filter], which only runs the benchmarks whose name contains the filter.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public class Benchmarks {
+
+    //how long each benchmark is warmed up and how long each measurement round lasts
+    private static final long WARMUP_NANOS = 2000000000L;
+    private static final long ROUND_NANOS = 1000000000L;
+    private static final int ROUNDS = 5;
+
+    //results of the benchmarked calls are added here so the JIT cannot remove the calls
+    private static volatile double sink;
+
+    /**
+     * A named benchmark. Each call of body performs opsPerCall operations.
+     */
+    private static class Benchmark {
+        final String name;
+        final int opsPerCall;
+        final DoubleSupplier body;
+
+        Benchmark(String name, int opsPerCall, DoubleSupplier body) {
+            this.name = name;
+            this.opsPerCall = opsPerCall;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Runs all benchmarks, or the ones whose name contains the filter given as first argument.
+     *
+     * @param args is an optional filter.
+     */
+    public static void main(String[] args) {
+        String filter = args.length > 0 ? args[0] : "";
+        List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+
+        //one particle update (move, evaluate, commit) in a ring swarm of 30
+        Swarm ringSwarm = new Swarm(30, "ras", "ri", false, 1, 1L);
+        int[] next = new int[1];
+        benchmarks.add(new Benchmark("particle.update", 1, () -> {
+            Particle particle = ringSwarm.getParticle(next[0]);
+            next[0] = (next[0] + 1) % ringSwarm.size();
+            particle.update();
+            return particle.getPBest();
+        }));
+
+        //finding the neighborhood best of every particle once
+        for (String topology : new String[] {"gl", "ri", "vn", "ra"}) {
+            Swarm swarm = new Swarm(49, "ras", topology, false, 1, 1L);
+            swarm.run();
+            benchmarks.add(new Benchmark("findNBest." + topology, swarm.size(), () -> {
+                double sum = 0;
+                for (int p = 0; p < swarm.size(); p++) {
+                    sum += swarm.getParticle(p).findNBestValue();
+                }
+                return sum;
+            }));
+        }
+
+        //one evaluation of each function
+        Random rand = new Random(1);
+        for (String function : new String[] {"rok", "ras", "ack"}) {
+            ObjectiveFunction objective = ObjectiveFunction.forName(function);
+            for (int dimensions : new int[] {10, 30, 100, 1000}) {
+                double[] x = new double[dimensions];
+                for (int i = 0; i < dimensions; i++) {
+                    x[i] = objective.getLowerBound() + rand.nextDouble() * (objective.getUpperBound() - objective.getLowerBound());
+                }
+                benchmarks.add(new Benchmark("eval." + objective.getClass().getName() + ".d" + dimensions, 1, () -> objective.evaluate(x, 0, dimensions)));
+            }
+        }
+
+        //whole runs of 10000 iterations, reported per iteration
+        for (int size : new int[] {16, 30, 49}) {
+            Swarm swarm = new Swarm(size, "ras", "ri", false, 1, 1L);
+            benchmarks.add(new Benchmark("iteration.ri.n" + size, 10000, () -> swarm.run()[9]));
+        }
+
+        System.out.printf("%-40s %14s %12s %10s%n", "benchmark", "ns/op", "error", "B/op");
+        for (Benchmark benchmark : benchmarks) {
+            if (benchmark.name.contains(filter)) {
+                measure(benchmark);
+            }
+        }
+    }
+
+    /**
+     * Warms up one benchmark, then measures it for a number of rounds and prints the mean time and allocation per operation.
+     *
+     * @param benchmark is the benchmark to measure.
+     */
+    private static void measure(Benchmark benchmark) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        long end = System.nanoTime() + WARMUP_NANOS;
+        while (System.nanoTime() < end) {
+            sink += benchmark.body.getAsDouble();
+        }
+
+        double[] nanosPerOp = new double[ROUNDS];
+        long totalOps = 0;
+        long allocated = threads.getThreadAllocatedBytes(thread);
+        for (int round = 0; round < ROUNDS; round++) {
+            long calls = 0;
+            long start = System.nanoTime();
+            end = start + ROUND_NANOS;
+            long now;
+            do {
+                sink += benchmark.body.getAsDouble();
+                calls++;
+                now = System.nanoTime();
+            } while (now < end);
+            nanosPerOp[round] = (double) (now - start) / (calls * benchmark.opsPerCall);
+            totalOps += calls * benchmark.opsPerCall;
+        }
+        allocated = threads.getThreadAllocatedBytes(thread) - allocated;
+
+        double mean = 0;
+        for (double value : nanosPerOp) {
+            mean += value / ROUNDS;
+        }
+        double variance = 0;
+        for (double value : nanosPerOp) {
+            variance += (value - mean) * (value - mean) / (ROUNDS - 1);
+        }
+        System.out.printf("%-40s %14.2f %12.2f %10.3f%n", benchmark.name, mean, Math.sqrt(variance), (double) allocated / totalOps);
+    }
+}
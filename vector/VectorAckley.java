@@ -0,0 +1,45 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The Ackley function evaluated with the JDK Vector API.
+ * The sum of squares and the sum of cosines are both accumulated in SIMD registers, the remaining coordinates are done one at a time.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public final class VectorAckley extends Ackley {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    /**
+     * Evaluates the Ackley function.
+     *
+     * @param x is the array holding the position vector.
+     * @param offset is the index in x at which the position vector starts.
+     * @param dimensions is the number of dimensions of the position vector.
+     * @return the value of the function at the position.
+     */
+    public double evaluate(double[] x, int offset, int dimensions) {
+        int end = offset + dimensions;
+        int i = offset;
+
+        DoubleVector squares = DoubleVector.zero(SPECIES);
+        DoubleVector cosines = DoubleVector.zero(SPECIES);
+        for (; i <= end - SPECIES.length(); i += SPECIES.length()) {
+            DoubleVector xi = DoubleVector.fromArray(SPECIES, x, i);
+            squares = xi.fma(xi, squares);
+            cosines = cosines.add(xi.mul(2.0*Math.PI).lanewise(VectorOperators.COS));
+        }
+        double firstSum = squares.reduceLanes(VectorOperators.ADD);
+        double secondSum = cosines.reduceLanes(VectorOperators.ADD);
+
+        for (; i < end; i++) {
+            double xi = x[i];
+            firstSum += xi * xi;
+            secondSum += Math.cos(2.0*Math.PI*xi);
+        }
+        return -20.0 * Math.exp(-0.2 * Math.sqrt(firstSum/dimensions)) -
+               Math.exp(secondSum/dimensions) + 20.0 + Math.E;
+    }
+}
@@ -0,0 +1,42 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The Rastrigin function evaluated with the JDK Vector API.
+ * The squares and cosines of as many coordinates as fit in a SIMD register are computed at once, the remaining coordinates are done one at a time.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public final class VectorRastrigin extends Rastrigin {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    /**
+     * Evaluates the Rastrigin function.
+     *
+     * @param x is the array holding the position vector.
+     * @param offset is the index in x at which the position vector starts.
+     * @param dimensions is the number of dimensions of the position vector.
+     * @return the value of the function at the position.
+     */
+    public double evaluate(double[] x, int offset, int dimensions) {
+        int end = offset + dimensions;
+        int i = offset;
+
+        //x*x - 10*cos(2*pi*x) for every lane, the constant 10 per dimension is added once at the end
+        DoubleVector sum = DoubleVector.zero(SPECIES);
+        for (; i <= end - SPECIES.length(); i += SPECIES.length()) {
+            DoubleVector xi = DoubleVector.fromArray(SPECIES, x, i);
+            DoubleVector cos = xi.mul(2.0*Math.PI).lanewise(VectorOperators.COS);
+            sum = sum.add(xi.mul(xi).sub(cos.mul(10.0)));
+        }
+        double retVal = sum.reduceLanes(VectorOperators.ADD) + 10.0 * (i - offset);
+
+        for (; i < end; i++) {
+            double xi = x[i];
+            retVal += xi*xi - 10.0*Math.cos(2.0*Math.PI*xi) + 10.0;
+        }
+        return retVal;
+    }
+}
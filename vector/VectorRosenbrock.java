@@ -0,0 +1,47 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The Rosenbrock function evaluated with the JDK Vector API.
+ * Each term needs a coordinate and the one after it, so the same coordinates are loaded a second time shifted by one,
+ * which lets a whole register of terms 100*(x[i+1] - x[i]^2)^2 + (x[i] - 1)^2 be computed at once.
+ *
+ * @authors Souleman Toure, Diyaa Yaqub, and Jigyasa Subedi
+ */
+public final class VectorRosenbrock extends Rosenbrock {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    /**
+     * Evaluates the Rosenbrock function.
+     *
+     * @param x is the array holding the position vector.
+     * @param offset is the index in x at which the position vector starts.
+     * @param dimensions is the number of dimensions of the position vector.
+     * @return the value of the function at the position.
+     */
+    public double evaluate(double[] x, int offset, int dimensions) {
+        //the last coordinate only appears as x[i+1], so there is one term less than there are dimensions
+        int end = offset + dimensions - 1;
+        int i = offset;
+
+        DoubleVector sum = DoubleVector.zero(SPECIES);
+        for (; i <= end - SPECIES.length(); i += SPECIES.length()) {
+            DoubleVector xi = DoubleVector.fromArray(SPECIES, x, i);
+            DoubleVector xiPlusOne = DoubleVector.fromArray(SPECIES, x, i + 1);
+            DoubleVector valley = xiPlusOne.sub(xi.mul(xi));
+            DoubleVector shift = xi.sub(1.0);
+            sum = sum.add(valley.mul(valley).mul(100.0)).add(shift.mul(shift));
+        }
+        double retVal = sum.reduceLanes(VectorOperators.ADD);
+
+        for (; i < end; i++) {
+            double xi = x[i];
+            double xiPlusOne = x[i+1];
+
+            retVal += 100.0 * Math.pow(xiPlusOne - (xi*xi), 2.0) + Math.pow(xi-1.0, 2.0);
+        }
+        return retVal;
+    }
+}